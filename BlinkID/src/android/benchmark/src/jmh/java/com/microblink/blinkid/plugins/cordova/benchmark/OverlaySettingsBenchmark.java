@@ -0,0 +1,106 @@
+package com.microblink.blinkid.plugins.cordova.benchmark;
+
+import android.content.Context;
+
+import com.microblink.blinkid.entities.recognizers.RecognizerBundle;
+import com.microblink.blinkid.fragment.overlay.blinkid.legacy.documentverification.LegacyDocumentVerificationOverlayStrings;
+import com.microblink.blinkid.fragment.overlay.blinkid.reticleui.ReticleOverlayStrings;
+import com.microblink.blinkid.plugins.cordova.overlays.OverlaySettingsSerializers;
+import com.microblink.blinkid.plugins.cordova.overlays.OverlaySettingsTemplate;
+import com.microblink.blinkid.uisettings.BlinkIdUISettings;
+import com.microblink.blinkid.uisettings.DocumentUISettings;
+import com.microblink.blinkid.uisettings.LegacyDocumentVerificationUISettings;
+import com.microblink.blinkid.uisettings.UISettings;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link OverlaySettingsSerializers#getOverlaySettings(Context, JSONObject, RecognizerBundle)}
+ * for every registered overlay with all of its strings set, and binding the compiled overlay
+ * settings to a recognizer bundle, which is what a cached scan launch does.
+ *
+ * The UI settings and overlay string builders are mocked, see {@link SdkConstructionMocks}, so the
+ * lookups of the default strings in the Android resources are not included and need to be measured
+ * on a device.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class OverlaySettingsBenchmark {
+
+    private static final String[] BLINK_ID_STRINGS = {
+            "firstSideInstructionsText", "flipInstructions", "errorMoveCloser", "errorMoveFarther",
+            "sidesNotMatchingTitle", "sidesNotMatchingMessage", "unsupportedDocumentTitle",
+            "unsupportedDocumentMessage", "recognitionTimeoutTitle", "recognitionTimeoutMessage",
+            "retryButtonText", "scanBarcodeText", "errorDocumentTooCloseToEdge", "errorBlurDetected",
+            "errorGlareDetected", "topPageInstructions", "leftPageInstructions", "rightPageInstructions",
+            "turnTopPageInstructions", "turnLeftPageInstructions", "turnRightPageInstructions",
+            "errorScanningWrongPageTop", "errorScanningWrongPageLeft", "errorScanningWrongPageRight"
+    };
+    private static final String[] DOCUMENT_VERIFICATION_STRINGS = {
+            "firstSideSplashMessage", "secondSideSplashMessage", "firstSideInstructions",
+            "secondSideInstructions", "glareMessage"
+    };
+
+    @Param({
+            "BlinkIdOverlaySettings",
+            "DocumentOverlaySettings",
+            "DocumentVerificationOverlaySettings"
+    })
+    public String overlaySettingsType;
+
+    private JSONObject mJsonOverlaySettings;
+    private Context mContext;
+    private RecognizerBundle mRecognizerBundle;
+    private OverlaySettingsTemplate mOverlaySettingsTemplate;
+    private final SdkConstructionMocks mSdkConstructionMocks = new SdkConstructionMocks();
+
+    @Setup
+    public void setUp() throws JSONException {
+        mJsonOverlaySettings = new JSONObject().put("overlaySettingsType", overlaySettingsType);
+        String[] strings = overlaySettingsType.equals("BlinkIdOverlaySettings") ? BLINK_ID_STRINGS
+                : overlaySettingsType.equals("DocumentVerificationOverlaySettings") ? DOCUMENT_VERIFICATION_STRINGS
+                : new String[0];
+        for (String key : strings) {
+            mJsonOverlaySettings.put(key, ResultFixtures.FIXTURE_STRING);
+        }
+        mContext = Mockito.mock(Context.class, Mockito.withSettings().stubOnly());
+        mRecognizerBundle = Mockito.mock(RecognizerBundle.class, Mockito.withSettings().stubOnly());
+    }
+
+    @Setup(Level.Iteration)
+    public void mockOverlayConstructors() {
+        mSdkConstructionMocks.mockConstruction(BlinkIdUISettings.class);
+        mSdkConstructionMocks.mockConstruction(DocumentUISettings.class);
+        mSdkConstructionMocks.mockConstruction(LegacyDocumentVerificationUISettings.class);
+        mSdkConstructionMocks.mockConstruction(ReticleOverlayStrings.Builder.class, Mockito.RETURNS_SELF);
+        mSdkConstructionMocks.mockConstruction(LegacyDocumentVerificationOverlayStrings.Builder.class, Mockito.RETURNS_SELF);
+        mOverlaySettingsTemplate = OverlaySettingsSerializers.INSTANCE.compileOverlaySettings(mContext, mJsonOverlaySettings);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeOverlayConstructorMocks() {
+        mSdkConstructionMocks.close();
+    }
+
+    @Benchmark
+    public UISettings getOverlaySettings() {
+        return OverlaySettingsSerializers.INSTANCE.getOverlaySettings(mContext, mJsonOverlaySettings, mRecognizerBundle);
+    }
+
+    @Benchmark
+    public UISettings bindCompiledOverlaySettings() {
+        return mOverlaySettingsTemplate.createUISettings(mContext, mRecognizerBundle);
+    }
+}
@@ -0,0 +1,79 @@
+package com.microblink.blinkid.plugins.cordova.benchmark;
+
+import com.microblink.blinkid.entities.recognizers.blinkid.generic.BlinkIdSingleSideRecognizer;
+import com.microblink.blinkid.plugins.cordova.recognizers.RecognizerBundleTemplate;
+import com.microblink.blinkid.plugins.cordova.recognizers.RecognizerSerializers;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link RecognizerSerializers#compileRecognizerCollection(JSONObject)}, the uncached
+ * deserialization of a recognizer collection with a single recognizer, for every registered
+ * recognizer serialization.
+ *
+ * Recognizer constructors are mocked, see {@link SdkConstructionMocks}. The settings are read from
+ * a recognizer without explicit values, so every setting falls back to its default like it does
+ * for a recognizer created in JavaScript without changes.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RecognizerDeserializationBenchmark {
+
+    @Param({
+            "SuccessFrameGrabberRecognizer",
+            "BlinkIdMultiSideRecognizer",
+            "BlinkIdSingleSideRecognizer",
+            "DocumentFaceRecognizer",
+            "IdBarcodeRecognizer",
+            "MrtdCombinedRecognizer",
+            "MrtdRecognizer",
+            "PassportRecognizer",
+            "VisaRecognizer",
+            "UsdlRecognizer",
+            "UsdlCombinedRecognizer"
+    })
+    public String recognizerType;
+
+    private JSONObject mJsonRecognizerCollection;
+    private final SdkConstructionMocks mSdkConstructionMocks = new SdkConstructionMocks();
+
+    @Setup
+    public void setUp() throws JSONException {
+        JSONObject jsonRecognizer = new JSONObject().put("recognizerType", recognizerType);
+        if (recognizerType.equals("SuccessFrameGrabberRecognizer")) {
+            jsonRecognizer.put("slaveRecognizer", new JSONObject().put("recognizerType", "BlinkIdSingleSideRecognizer"));
+        }
+        mJsonRecognizerCollection = new JSONObject().put("recognizerArray", new JSONArray().put(jsonRecognizer));
+    }
+
+    @Setup(Level.Iteration)
+    public void mockRecognizerConstructors() throws JSONException {
+        mSdkConstructionMocks.mockConstruction(RecognizerSerializers.INSTANCE.getRecognizerSerialization(
+                new JSONObject().put("recognizerType", recognizerType)).getRecognizerClass());
+        if (recognizerType.equals("SuccessFrameGrabberRecognizer")) {
+            mSdkConstructionMocks.mockConstruction(BlinkIdSingleSideRecognizer.class);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeRecognizerConstructorMocks() {
+        mSdkConstructionMocks.close();
+    }
+
+    @Benchmark
+    public RecognizerBundleTemplate compileRecognizerCollection() {
+        return RecognizerSerializers.INSTANCE.compileRecognizerCollection(mJsonRecognizerCollection);
+    }
+}
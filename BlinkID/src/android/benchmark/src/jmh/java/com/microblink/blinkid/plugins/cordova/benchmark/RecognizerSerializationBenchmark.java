@@ -0,0 +1,52 @@
+package com.microblink.blinkid.plugins.cordova.benchmark;
+
+import com.microblink.blinkid.entities.recognizers.Recognizer;
+import com.microblink.blinkid.plugins.cordova.recognizers.RecognizerSerializers;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link RecognizerSerializers#serializeRecognizerResults(Recognizer[])} for every
+ * registered recognizer serialization.
+ *
+ * Getters of the fixture results go through Mockito, so absolute numbers include the cost of the
+ * fixtures. Compare results between revisions rather than with on-device measurements.
+ */
+@State(Scope.Benchmark)
+public class RecognizerSerializationBenchmark {
+
+    @Param({
+            "SuccessFrameGrabberRecognizer",
+            "BlinkIdMultiSideRecognizer",
+            "BlinkIdSingleSideRecognizer",
+            "DocumentFaceRecognizer",
+            "IdBarcodeRecognizer",
+            "MrtdCombinedRecognizer",
+            "MrtdRecognizer",
+            "PassportRecognizer",
+            "VisaRecognizer",
+            "UsdlRecognizer",
+            "UsdlCombinedRecognizer"
+    })
+    public String recognizerType;
+
+    private Recognizer<?>[] mRecognizers;
+
+    @Setup
+    public void setUp() throws JSONException {
+        mRecognizers = new Recognizer<?>[] { ResultFixtures.createRecognizer(recognizerType) };
+        // populate the fixture caches before measuring
+        RecognizerSerializers.INSTANCE.serializeRecognizerResults(mRecognizers);
+    }
+
+    @Benchmark
+    public JSONArray serializeRecognizerResults() {
+        return RecognizerSerializers.INSTANCE.serializeRecognizerResults(mRecognizers);
+    }
+}
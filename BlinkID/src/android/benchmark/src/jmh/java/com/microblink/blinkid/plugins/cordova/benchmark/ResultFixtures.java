@@ -0,0 +1,91 @@
+package com.microblink.blinkid.plugins.cordova.benchmark;
+
+import com.microblink.blinkid.entities.recognizers.Recognizer;
+import com.microblink.blinkid.entities.recognizers.successframe.SuccessFrameGrabberRecognizer;
+import com.microblink.blinkid.image.Image;
+import com.microblink.blinkid.plugins.cordova.recognizers.RecognizerSerialization;
+import com.microblink.blinkid.plugins.cordova.recognizers.RecognizerSerializers;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates recognizers whose results are populated with fixture values.
+ *
+ * Every getter of a fixture returns a non-empty string, the first enum constant, an empty array,
+ * zero or a nested fixture, so the serializers walk all fields of a fully populated result.
+ * Images are absent, image encoding is benchmarked separately on devices. Values are created on
+ * the first call and cached, so the benchmark does not measure mock creation.
+ */
+final class ResultFixtures {
+    static final String FIXTURE_STRING = "FIXTURE";
+
+    private static final Answer<Object> FIXTURE_ANSWER = new Answer<Object>() {
+        private final Map<List<Object>, Object> mValues = new HashMap<>();
+
+        @Override
+        public Object answer(InvocationOnMock invocation) throws Throwable {
+            List<Object> key = new ArrayList<>();
+            key.add(invocation.getMock());
+            key.add(invocation.getMethod());
+            key.addAll(Arrays.asList(invocation.getArguments()));
+            if (mValues.containsKey(key)) {
+                return mValues.get(key);
+            }
+            Object value = createValue(invocation);
+            mValues.put(key, value);
+            return value;
+        }
+
+        private Object createValue(InvocationOnMock invocation) throws Throwable {
+            Class<?> type = invocation.getMethod().getReturnType();
+            if (type == String.class) {
+                return FIXTURE_STRING;
+            }
+            if (type.isEnum()) {
+                return type.getEnumConstants()[0];
+            }
+            if (type.isArray()) {
+                return Array.newInstance(type.getComponentType(), 0);
+            }
+            if (type == Image.class) {
+                return null;
+            }
+            Object defaultValue = Mockito.RETURNS_DEFAULTS.answer(invocation);
+            if (defaultValue != null || type.isPrimitive() || type == void.class) {
+                return defaultValue;
+            }
+            // nested result objects, e.g. StringResult, DateResult or ClassInfo
+            return Mockito.mock(type, Mockito.withSettings().stubOnly().defaultAnswer(this));
+        }
+    };
+
+    private ResultFixtures() {
+    }
+
+    /**
+     * @param recognizerType JSON name of the recognizer, as registered in {@link RecognizerSerializers}
+     */
+    static Recognizer<?> createRecognizer(String recognizerType) throws JSONException {
+        RecognizerSerialization serialization = RecognizerSerializers.INSTANCE.getRecognizerSerialization(
+                new JSONObject().put("recognizerType", recognizerType));
+        Recognizer<?> recognizer = (Recognizer<?>) Mockito.mock(serialization.getRecognizerClass(),
+                Mockito.withSettings().stubOnly().defaultAnswer(FIXTURE_ANSWER));
+        if (recognizer instanceof SuccessFrameGrabberRecognizer) {
+            // the slave must be a registered recognizer, otherwise it has no serialization
+            Mockito.doReturn(createRecognizer("BlinkIdSingleSideRecognizer"))
+                    .when((SuccessFrameGrabberRecognizer) recognizer).getSlaveRecognizer();
+        }
+        return recognizer;
+    }
+}
@@ -0,0 +1,38 @@
+package com.microblink.blinkid.plugins.cordova.benchmark;
+
+import org.mockito.MockedConstruction;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the constructors of SDK classes that create native objects or read Android resources,
+ * so the plugin's deserialization code runs on a plain JVM. Setters of the constructed mocks do
+ * nothing, the benchmarks measure the JSON walk and the calls the plugin makes.
+ *
+ * Mockito keeps every constructed mock until the mocks are closed, so benchmarks reopen them for
+ * every iteration and keep iterations short.
+ */
+final class SdkConstructionMocks {
+    private final List<MockedConstruction<?>> mMockedConstructions = new ArrayList<>();
+
+    void mockConstruction(Class<?> type) {
+        mockConstruction(type, Mockito.RETURNS_DEFAULTS);
+    }
+
+    /**
+     * @param defaultAnswer answer of the constructed mocks, e.g. {@link Mockito#RETURNS_SELF} for builders
+     */
+    void mockConstruction(Class<?> type, Answer<Object> defaultAnswer) {
+        mMockedConstructions.add(Mockito.mockConstruction(type, Mockito.withSettings().stubOnly().defaultAnswer(defaultAnswer)));
+    }
+
+    void close() {
+        for (MockedConstruction<?> mockedConstruction : mMockedConstructions) {
+            mockedConstruction.close();
+        }
+        mMockedConstructions.clear();
+    }
+}
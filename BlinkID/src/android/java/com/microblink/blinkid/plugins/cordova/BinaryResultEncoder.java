@@ -0,0 +1,146 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes a serialized scan result into the compact binary format decoded by
+ * {@code decodeBinaryResult} in blinkIdScanner.js.
+ *
+ * Layout, all integers are unsigned LEB128 varints unless stated otherwise:
+ * <pre>
+ *   magic 'B' 'K' 'R', format version byte
+ *   string table: number of keys, then every key as UTF-8 byte length and bytes
+ *   root value
+ * </pre>
+ * Every value starts with a tag byte. Integers are zigzag encoded, doubles are 8 big endian
+ * bytes, strings are UTF-8 byte length and bytes, arrays are the number of elements followed by
+ * the elements, objects are the number of entries followed by pairs of key index into the string
+ * table and value. Object keys are written only once, so field names repeated across the nested
+ * objects of a result cost a single varint each.
+ *
+ * The encoder transcodes the finished JSON result, so it adds to the serialization time and
+ * allocations on the native side. Only the payload sent over the bridge and its parsing in the
+ * WebView get cheaper.
+ */
+final class BinaryResultEncoder {
+    static final int FORMAT_VERSION = 1;
+
+    private static final byte[] MAGIC = {'B', 'K', 'R'};
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_DOUBLE = 4;
+    private static final int TAG_STRING = 5;
+    private static final int TAG_ARRAY = 6;
+    private static final int TAG_OBJECT = 7;
+
+    private static final int INITIAL_BODY_CAPACITY = 16 << 10;
+    private static final int INITIAL_TABLE_CAPACITY = 4 << 10;
+
+    private final Map<String, Integer> mKeyIndices = new HashMap<>();
+    private final List<String> mKeys = new ArrayList<>();
+
+    private BinaryResultEncoder() {
+    }
+
+    static byte[] encode(JSONObject jsonResult) {
+        return new BinaryResultEncoder().encodeRoot(jsonResult);
+    }
+
+    private byte[] encodeRoot(JSONObject jsonResult) {
+        PooledByteArrayOutputStream body = new PooledByteArrayOutputStream(INITIAL_BODY_CAPACITY);
+        PooledByteArrayOutputStream out = new PooledByteArrayOutputStream(INITIAL_TABLE_CAPACITY);
+        try {
+            // the body is written first so the string table contains exactly the keys it references
+            writeValue(body, jsonResult);
+
+            out.write(MAGIC, 0, MAGIC.length);
+            out.write(FORMAT_VERSION);
+            writeVarint(out, mKeys.size());
+            for (String key : mKeys) {
+                writeString(out, key);
+            }
+            body.writeTo(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            // pooled streams never throw
+            throw new RuntimeException(e);
+        } finally {
+            body.release();
+            out.release();
+        }
+    }
+
+    private void writeValue(PooledByteArrayOutputStream out, Object value) {
+        if (value == null || value == JSONObject.NULL) {
+            out.write(TAG_NULL);
+        } else if (value instanceof Boolean) {
+            out.write((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            out.write(TAG_INT);
+            long longValue = ((Number) value).longValue();
+            writeVarint(out, (longValue << 1) ^ (longValue >> 63));
+        } else if (value instanceof Number) {
+            out.write(TAG_DOUBLE);
+            long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (bits >>> shift));
+            }
+        } else if (value instanceof JSONObject) {
+            JSONObject jsonObject = (JSONObject) value;
+            out.write(TAG_OBJECT);
+            writeVarint(out, jsonObject.length());
+            Iterator<String> keys = jsonObject.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                writeVarint(out, keyIndex(key));
+                writeValue(out, jsonObject.opt(key));
+            }
+        } else if (value instanceof JSONArray) {
+            JSONArray jsonArray = (JSONArray) value;
+            out.write(TAG_ARRAY);
+            writeVarint(out, jsonArray.length());
+            for (int i = 0; i < jsonArray.length(); ++i) {
+                writeValue(out, jsonArray.opt(i));
+            }
+        } else {
+            out.write(TAG_STRING);
+            writeString(out, value.toString());
+        }
+    }
+
+    private int keyIndex(String key) {
+        Integer index = mKeyIndices.get(key);
+        if (index == null) {
+            index = mKeys.size();
+            mKeyIndices.put(key, index);
+            mKeys.add(key);
+        }
+        return index;
+    }
+
+    private static void writeString(PooledByteArrayOutputStream out, String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeVarint(PooledByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
\ No newline at end of file
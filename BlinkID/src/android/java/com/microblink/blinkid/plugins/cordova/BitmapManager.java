@@ -0,0 +1,138 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Owns the bitmaps created by the plugin while it decodes input images and encodes result images.
+ *
+ * Every bitmap obtained from {@link #acquire(int, int, Bitmap.Config)} or registered with
+ * {@link #track(Bitmap)} must be handed back with {@link #release(Bitmap)} once it is not needed
+ * anymore. Released mutable bitmaps are kept in a small pool and reused for bitmaps of the same
+ * size and configuration, all other bitmaps are recycled immediately.
+ */
+final class BitmapManager {
+    static final BitmapManager INSTANCE = new BitmapManager();
+
+    private static final int MAX_POOLED_BITMAPS = 4;
+    private static final long MAX_POOLED_BYTES = 16L << 20;
+
+    // most recently released bitmaps are at the front
+    private final ArrayDeque<Bitmap> mPool = new ArrayDeque<>(MAX_POOLED_BITMAPS);
+    private long mPooledBytes;
+    private final AtomicLong mLiveBytes = new AtomicLong();
+
+    private BitmapManager() {
+    }
+
+    /**
+     * Returns a mutable bitmap with the given size and configuration. Its contents are undefined,
+     * callers are expected to overwrite all pixels.
+     */
+    Bitmap acquire(int width, int height, Bitmap.Config config) {
+        synchronized (this) {
+            Iterator<Bitmap> iterator = mPool.iterator();
+            while (iterator.hasNext()) {
+                Bitmap bitmap = iterator.next();
+                if (bitmap.getWidth() == width && bitmap.getHeight() == height && bitmap.getConfig() == config) {
+                    iterator.remove();
+                    mPooledBytes -= bitmap.getAllocationByteCount();
+                    return track(bitmap);
+                }
+            }
+        }
+        return track(Bitmap.createBitmap(width, height, config));
+    }
+
+    /**
+     * Returns the smallest pooled bitmap that can hold the given number of bytes, to be passed to
+     * {@code BitmapFactory.Options.inBitmap}, or {@code null} if there is none. Bitmaps more than
+     * twice as large are not returned, they would keep too much memory alive for a small image.
+     */
+    Bitmap acquireReusable(long byteCount) {
+        synchronized (this) {
+            Bitmap bestFit = null;
+            for (Bitmap bitmap : mPool) {
+                int size = bitmap.getAllocationByteCount();
+                if (size >= byteCount && size <= 2 * byteCount && (bestFit == null || size < bestFit.getAllocationByteCount())) {
+                    bestFit = bitmap;
+                }
+            }
+            if (bestFit == null) {
+                return null;
+            }
+            mPool.remove(bestFit);
+            mPooledBytes -= bestFit.getAllocationByteCount();
+            return track(bestFit);
+        }
+    }
+
+    /**
+     * Registers a bitmap created outside of the manager, so it is counted as live until released.
+     *
+     * @return the same bitmap
+     */
+    Bitmap track(Bitmap bitmap) {
+        if (bitmap != null) {
+            mLiveBytes.addAndGet(bitmap.getAllocationByteCount());
+        }
+        return bitmap;
+    }
+
+    /**
+     * Returns the bitmap to the pool or recycles it. The caller must not use the bitmap afterwards.
+     * Releasing a bitmap that is already pooled or recycled has no effect.
+     */
+    void release(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        long size = bitmap.getAllocationByteCount();
+        if (!bitmap.isMutable() || size > MAX_POOLED_BYTES) {
+            mLiveBytes.addAndGet(-size);
+            bitmap.recycle();
+            return;
+        }
+        synchronized (this) {
+            // pooling a bitmap twice would hand it out to two owners
+            if (isPooled(bitmap)) {
+                return;
+            }
+            mLiveBytes.addAndGet(-size);
+            while (!mPool.isEmpty() && (mPool.size() >= MAX_POOLED_BITMAPS || mPooledBytes + size > MAX_POOLED_BYTES)) {
+                Bitmap evicted = mPool.pollLast();
+                mPooledBytes -= evicted.getAllocationByteCount();
+                evicted.recycle();
+            }
+            mPool.addFirst(bitmap);
+            mPooledBytes += size;
+        }
+    }
+
+    // guarded by this, bitmaps are compared by identity
+    private boolean isPooled(Bitmap bitmap) {
+        for (Bitmap pooled : mPool) {
+            if (pooled == bitmap) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return number of bytes held by bitmaps that were acquired or tracked and not released yet
+     */
+    long getLiveBytes() {
+        return mLiveBytes.get();
+    }
+
+    /**
+     * @return number of bytes held by released bitmaps that are kept for reuse
+     */
+    synchronized long getPooledBytes() {
+        return mPooledBytes;
+    }
+}
\ No newline at end of file
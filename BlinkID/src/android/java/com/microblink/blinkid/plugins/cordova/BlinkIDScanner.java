@@ -13,8 +13,6 @@ import android.content.Context;
 import android.content.Intent;
 import androidx.annotation.NonNull;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.util.Base64;
 
 import com.microblink.blinkid.MicroblinkSDK;
 import com.microblink.blinkid.entities.recognizers.RecognizerBundle;
@@ -24,8 +22,6 @@ import com.microblink.blinkid.plugins.cordova.overlays.OverlaySettingsSerializer
 import com.microblink.blinkid.plugins.cordova.recognizers.RecognizerSerializers;
 import com.microblink.blinkid.locale.LanguageUtils;
 import com.microblink.blinkid.directApi.DirectApiErrorListener;
-import com.microblink.blinkid.directApi.RecognizerRunner;
-import com.microblink.blinkid.hardware.orientation.Orientation;
 import com.microblink.blinkid.metadata.recognition.FirstSideRecognitionCallback;
 import com.microblink.blinkid.recognition.RecognitionSuccessType;
 import com.microblink.blinkid.metadata.MetadataCallbacks;
@@ -33,23 +29,63 @@ import com.microblink.blinkid.view.recognition.ScanResultListener;
 import com.microblink.blinkid.licence.exception.LicenceKeyException;
 import org.apache.cordova.CallbackContext;
 import org.apache.cordova.CordovaPlugin;
+import org.apache.cordova.PluginResult;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 public class BlinkIDScanner extends CordovaPlugin {
 
     private static final int REQUEST_CODE = 1337;
 
     private static final String SCAN_WITH_CAMERA = "scanWithCamera";
     private static final String SCAN_WITH_DIRECT_API = "scanWithDirectApi";
+    private static final String SCAN_BATCH_WITH_DIRECT_API = "scanBatchWithDirectApi";
+    private static final String SCAN_FRAME_SEQUENCE_WITH_DIRECT_API = "scanFrameSequenceWithDirectApi";
+    private static final String GET_RESULT_IMAGE = "getResultImage";
+    private static final String RELEASE_RESULT_IMAGES = "releaseResultImages";
+    private static final String GET_SCAN_QUEUE_METRICS = "getScanQueueMetrics";
+    private static final String PREWARM = "prewarm";
     private static final String CANCELLED = "cancelled";
+    private static final String REQUEST_ID = "requestId";
     private static final String RESULT_LIST = "resultList";
+    private static final String IMAGE_DECODING = "imageDecoding";
+    private static final String RECOGNITION_ATTEMPTS = "recognitionAttempts";
+    private static final String FRAME_SEQUENCE = "frameSequence";
+    private static final String PROGRESS_EVENT = "progressEvent";
+    private static final String PROGRESS_EVENT_TYPE = "type";
+    private static final String FRONT_IMAGE = "frontImage";
+    private static final String BACK_IMAGE = "backImage";
+    private static final String BATCH_INDEX = "index";
+    private static final String BATCH_ERROR = "error";
+    private static final String BATCH_DONE = "done";
+
+    /**
+     * Events reported during a scan when the caller asked for progress events.
+     */
+    private enum ProgressEventType {
+        /** The camera scanning activity was started or DirectAPI started recognizing the front image. */
+        SCAN_STARTED,
+        /** A multiside recognizer recognized the front side, the event contains its partial results. */
+        FIRST_SIDE_RECOGNIZED,
+        /** DirectAPI started recognizing the back image. */
+        BACK_SIDE_STARTED
+    }
 
-    private RecognizerBundle mRecognizerBundle;
-    private RecognizerRunner mRecognizerRunner;
-    private boolean mFirstSideScanned = false;
-    private CallbackContext mCallbackContext;
+    private final ScanRequestScheduler mScanRequestScheduler = new ScanRequestScheduler(new ScanRequestScheduler.FailureHandler() {
+        @Override
+        public void onRequestFailed(ScanRequest request, RuntimeException exception) {
+            handleScanError(request, "Unexpected error: " + exception);
+            // a request that sent its result before it threw still has to hand over the recognizers
+            finishRequest(request);
+        }
+    });
+    private WarmRecognizerRunner mWarmRecognizerRunner;
+    // request waiting for the result of the scanning activity
+    private volatile ScanRequest mCameraRequest;
 
     /**
      * Constructor.
@@ -57,6 +93,20 @@ public class BlinkIDScanner extends CordovaPlugin {
     public BlinkIDScanner() {
     }
 
+    @Override
+    protected void pluginInitialize() {
+        mWarmRecognizerRunner = new WarmRecognizerRunner(cordova.getContext(), mScanRequestScheduler);
+        cordova.getContext().getApplicationContext().registerComponentCallbacks(mWarmRecognizerRunner);
+    }
+
+    @Override
+    public void onDestroy() {
+        cordova.getContext().getApplicationContext().unregisterComponentCallbacks(mWarmRecognizerRunner);
+        mWarmRecognizerRunner.requestEviction();
+        RecognizerSerializers.INSTANCE.clearCompiledRecognizerCollections();
+        OverlaySettingsSerializers.INSTANCE.clearCompiledOverlaySettings();
+    }
+
     /**
      * Executes the request.
      *
@@ -66,6 +116,10 @@ public class BlinkIDScanner extends CordovaPlugin {
      * To run on the UI thread, use:
      * cordova.getActivity().runOnUiThread(runnable);
      *
+     * Scanning actions are queued in {@link ScanRequestScheduler}, so JavaScript may start a scan
+     * while another one is in progress. Each scan keeps its own callback context and state, and
+     * all of its work, including argument parsing, runs on the scheduler's thread.
+     *
      * @param action
      *            The action to execute.
      * @param args
@@ -80,178 +134,625 @@ public class BlinkIDScanner extends CordovaPlugin {
      */
     @Override
     public boolean execute(String action, JSONArray args, CallbackContext callbackContext) {
-        mCallbackContext = callbackContext;
-
         try {
             if (action.equals(SCAN_WITH_CAMERA)) {
             	//Scan with camera
-                scanWithCamera(args);
+                scanWithCamera(args, callbackContext);
             } else if (action.equals(SCAN_WITH_DIRECT_API)) {
             	//Scan with DirectAPI
-                scanWithDirectApi(args);
+                scanWithDirectApi(args, callbackContext);
+            } else if (action.equals(SCAN_BATCH_WITH_DIRECT_API)) {
+                scanBatchWithDirectApi(args, callbackContext);
+            } else if (action.equals(SCAN_FRAME_SEQUENCE_WITH_DIRECT_API)) {
+                scanFrameSequenceWithDirectApi(args, callbackContext);
+            } else if (action.equals(GET_RESULT_IMAGE)) {
+                getResultImage(args, callbackContext);
+            } else if (action.equals(RELEASE_RESULT_IMAGES)) {
+                releaseResultImages(args, callbackContext);
+            } else if (action.equals(GET_SCAN_QUEUE_METRICS)) {
+                getScanQueueMetrics(callbackContext);
+            } else if (action.equals(PREWARM)) {
+                prewarm(args, callbackContext);
             } else {
                 return false;
             }
             return true;
         } catch (JSONException e) {
-            mCallbackContext.error("JSON error: " + e.getMessage());
+            callbackContext.error("JSON error: " + e.getMessage());
             return false;
+        } catch (IllegalArgumentException e) {
+            callbackContext.error("Invalid settings: " + e.getMessage());
+            return true;
         }
     }
 
-    private void scanWithCamera(JSONArray arguments) throws JSONException {
+    private void scanWithCamera(final JSONArray arguments, CallbackContext callbackContext) {
+        submitScanRequest(callbackContext, new ScanRequestScheduler.Task() {
+            @Override
+            public void run(ScanRequest request) {
+                startScanningActivity(request, arguments);
+            }
+        });
+    }
+
+    private void startScanningActivity(ScanRequest request, JSONArray arguments) {
         try {
             JSONObject jsonOverlaySettings = arguments.getJSONObject(0);
             JSONObject jsonRecognizerCollection = arguments.getJSONObject(1);
             JSONObject jsonLicenses = arguments.getJSONObject(2);
-            if (setLicense(jsonLicenses)) {
+            request.setProgressEventsEnabled(arguments.optBoolean(3, false));
+            if (setLicense(request, jsonLicenses)) {
                 setLanguage(jsonOverlaySettings.getString("language"),
                         jsonOverlaySettings.getString("country"));
-                mRecognizerBundle = RecognizerSerializers.INSTANCE.deserializeRecognizerCollection(jsonRecognizerCollection);
-                UISettings overlaySettings = OverlaySettingsSerializers.INSTANCE.getOverlaySettings(this.cordova.getContext(), jsonOverlaySettings, mRecognizerBundle);
+                // every launch gets fresh recognizers, only the compiled recognizer collection is reused
+                RecognizerBundle recognizerBundle = RecognizerSerializers.INSTANCE.deserializeRecognizerCollection(jsonRecognizerCollection, WarmRecognizerRunner.fingerprint(jsonRecognizerCollection));
+                request.setRecognizerBundle(recognizerBundle);
+                // the camera scanning must not run while DirectAPI holds native recognizers
+                mWarmRecognizerRunner.evict();
+                setResultSerializationSettings(request, jsonRecognizerCollection);
+                // the compiled overlay settings are bound to the fresh recognizer bundle
+                UISettings overlaySettings = OverlaySettingsSerializers.INSTANCE.getOverlaySettings(this.cordova.getContext(), jsonOverlaySettings, WarmRecognizerRunner.fingerprint(jsonOverlaySettings), recognizerBundle);
 
                 // unable to use ActivityRunner because we need to use cordova's activity launcher
                 Intent intent = new Intent(this.cordova.getContext(), overlaySettings.getTargetActivity());
                 overlaySettings.saveToIntent(intent);
-                this.cordova.startActivityForResult(this, intent, REQUEST_CODE);   
+                mCameraRequest = request;
+                this.cordova.startActivityForResult(this, intent, REQUEST_CODE);
+                // the scanning activity keeps its metadata callbacks, so only its start is reported
+                sendProgressEvent(request, ProgressEventType.SCAN_STARTED, false);
             }
         } catch (JSONException e) {
-            mCallbackContext.error("Could not start scanWithCamera.\nJSON error: " + e);
+            handleScanError(request, "Could not start scanWithCamera.\nJSON error: " + e);
+        } catch (IllegalArgumentException e) {
+            handleScanError(request, "Could not start scanWithCamera.\nInvalid settings: " + e.getMessage());
         }
     }
 
-    private void scanWithDirectApi(JSONArray arguments) throws JSONException {
+    private void scanWithDirectApi(final JSONArray arguments, CallbackContext callbackContext) {
+        submitScanRequest(callbackContext, new ScanRequestScheduler.Task() {
+            @Override
+            public void run(ScanRequest request) {
+                try {
+                    startDirectApiScan(request, arguments);
+                } catch (JSONException e) {
+                    handleScanError(request, "JSON error: " + e.getMessage());
+                } catch (IllegalArgumentException e) {
+                    handleScanError(request, "Invalid settings: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void startDirectApiScan(final ScanRequest request, JSONArray arguments) throws JSONException {
         //DirectAPI processing
         JSONObject jsonRecognizerCollection = arguments.getJSONObject(0);
         JSONObject jsonLicense = arguments.getJSONObject(3);
-        if (setLicense(jsonLicense)) {
-
-            ScanResultListener mScanResultListenerBackSide = new ScanResultListener() {
+        request.setProgressEventsEnabled(arguments.optBoolean(4, false));
+        if (setLicense(request, jsonLicense) && setupRecognizerRunner(request, jsonRecognizerCollection)) {
+            sendProgressEvent(request, ProgressEventType.SCAN_STARTED, false);
+            recognizeDocument(request, arguments.optString(1, null), arguments.optString(2, null), new DirectApiListener() {
                 @Override
-                public void onScanningDone(@NonNull RecognitionSuccessType recognitionSuccessType) {
-                    mFirstSideScanned = false;
-                    handleDirectApiResult(recognitionSuccessType);
+                public void onRecognitionDone(RecognitionSuccessType recognitionSuccessType, JSONObject jsonImageDecoding, JSONObject jsonRecognitionAttempts) {
+                    handleDirectApiResult(request, recognitionSuccessType, jsonImageDecoding, jsonRecognitionAttempts);
                 }
                 @Override
-                public void onUnrecoverableError(@NonNull Throwable throwable) {
-                    handleDirectApiError(throwable.getMessage());
+                public void onRecognitionFailed(String errorMessage) {
+                    handleScanError(request, errorMessage);
                 }
-            };
+            });
+        }
+    }
 
-            FirstSideRecognitionCallback  mFirstSideRecognitionCallback = new FirstSideRecognitionCallback() {
-                @Override
-                public void onFirstSideRecognitionFinished() {
-                    mFirstSideScanned = true;
+    private void scanBatchWithDirectApi(final JSONArray arguments, CallbackContext callbackContext) {
+        submitScanRequest(callbackContext, new ScanRequestScheduler.Task() {
+            @Override
+            public void run(ScanRequest request) {
+                try {
+                    startDirectApiBatch(request, arguments);
+                } catch (JSONException e) {
+                    handleScanError(request, "JSON error: " + e.getMessage());
+                } catch (IllegalArgumentException e) {
+                    handleScanError(request, "Invalid settings: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void startDirectApiBatch(ScanRequest request, JSONArray arguments) throws JSONException {
+        JSONObject jsonRecognizerCollection = arguments.getJSONObject(0);
+        JSONArray jsonImages = arguments.getJSONArray(1);
+        JSONObject jsonLicense = arguments.getJSONObject(2);
+        // the runner is initialized once for the whole batch
+        if (setLicense(request, jsonLicense) && setupRecognizerRunner(request, jsonRecognizerCollection)) {
+            processBatchItem(request, jsonImages, 0);
+        }
+    }
+
+    private void scanFrameSequenceWithDirectApi(final JSONArray arguments, CallbackContext callbackContext) {
+        submitScanRequest(callbackContext, new ScanRequestScheduler.Task() {
+            @Override
+            public void run(ScanRequest request) {
+                try {
+                    startDirectApiFrameSequence(request, arguments);
+                } catch (JSONException e) {
+                    handleScanError(request, "JSON error: " + e.getMessage());
+                } catch (IllegalArgumentException e) {
+                    handleScanError(request, "Invalid settings: " + e.getMessage());
                 }
-            };
+            }
+        });
+    }
 
-            ScanResultListener mScanResultListenerFrontSide = new ScanResultListener() {
+    private void startDirectApiFrameSequence(final ScanRequest request, JSONArray arguments) throws JSONException {
+        JSONObject jsonRecognizerCollection = arguments.getJSONObject(0);
+        List<String> frames = FrameSequenceRecognizer.resolveFrames(arguments.opt(1));
+        long frameIntervalMillis = arguments.optLong(2, 0);
+        JSONObject jsonLicense = arguments.getJSONObject(3);
+        if (frames == null || frames.isEmpty()) {
+            handleScanError(request, "The frame source must be a non-empty array of images or a 'file://' URI of a directory with images!");
+            return;
+        }
+        if (setLicense(request, jsonLicense) && setupRecognizerRunner(request, jsonRecognizerCollection)) {
+            new FrameSequenceRecognizer(cordova.getContext(), mScanRequestScheduler.stepsOf(request), cordova.getThreadPool(), request.getRecognizerRunner(), frames,
+                    request.getImageDecodingProfile(), frameIntervalMillis, new FrameSequenceRecognizer.Listener() {
                 @Override
-                public void onScanningDone(@NonNull RecognitionSuccessType recognitionSuccessType) {
-                    if (mFirstSideScanned) {
-                        //multiside recognizer used
-                        try {
-                            if (!arguments.getString(2).isEmpty() && !arguments.isNull(2)) {
-                                processImage(arguments.getString(2), mScanResultListenerBackSide);
-                            } else if (recognitionSuccessType != RecognitionSuccessType.UNSUCCESSFUL) {
-                                handleDirectApiResult(recognitionSuccessType);
-                            } else {
-                                handleDirectApiError("Could not extract the information from the front side and the back side is empty!");
-                            }
-                        } catch (JSONException e) {
-                            throw new RuntimeException(e);
-                        }
-                    } else if (!mFirstSideScanned && recognitionSuccessType != RecognitionSuccessType.UNSUCCESSFUL){
-                        //singleside recognizer used
-                        handleDirectApiResult(recognitionSuccessType);
-                    } else {
-                        mFirstSideScanned = false;
-                        handleDirectApiError("Could not extract the information with DirectAPI!");
+                public void onSequenceDone(RecognitionSuccessType recognitionSuccessType, JSONObject jsonFrameStatistics) {
+                    if (!request.finish()) {
+                        return;
+                    }
+                    JSONObject result = new JSONObject();
+                    try {
+                        result.put(CANCELLED, false);
+                        result.put(REQUEST_ID, request.getId());
+                        result.put(RESULT_LIST, RecognizerSerializers.INSTANCE.serializeRecognizerResults(request.getRecognizerBundle().getRecognizers(), createResultSerializationContext(request)));
+                        result.put(FRAME_SEQUENCE, jsonFrameStatistics);
+                    } catch (JSONException e) {
+                        throw new RuntimeException(e);
                     }
+                    sendScanResult(request, result, false);
+                    finishRequest(request);
                 }
                 @Override
-                public void onUnrecoverableError(@NonNull Throwable throwable) {
-                    handleDirectApiError(throwable.getMessage());
+                public void onSequenceFailed(String errorMessage) {
+                    handleScanError(request, errorMessage);
                 }
-            };
+            }).start();
+        }
+    }
 
-            setupRecognizerRunner(jsonRecognizerCollection, mFirstSideRecognitionCallback);
+    /**
+     * Sets the license and prepares the DirectAPI runner for the recognizer collection, so the first
+     * scan with the same collection starts with an initialized runner. It is queued like a scan,
+     * so it never competes with scans for the native recognizers.
+     */
+    private void prewarm(final JSONArray arguments, CallbackContext callbackContext) {
+        submitScanRequest(callbackContext, new ScanRequestScheduler.Task() {
+            @Override
+            public void run(ScanRequest request) {
+                try {
+                    startPrewarm(request, arguments);
+                } catch (JSONException e) {
+                    handleScanError(request, "JSON error: " + e.getMessage());
+                } catch (IllegalArgumentException e) {
+                    handleScanError(request, "Invalid settings: " + e.getMessage());
+                }
+            }
+        });
+    }
 
-            if (!arguments.getString(1).isEmpty() && !arguments.isNull(1)) {
-                processImage(arguments.getString(1), mScanResultListenerFrontSide);
-            } else {
-                handleDirectApiError("The provided image for the 'frontImage' parameter is empty!");
+    private void startPrewarm(ScanRequest request, JSONArray arguments) throws JSONException {
+        JSONObject jsonLicense = arguments.getJSONObject(0);
+        JSONObject jsonRecognizerCollection = arguments.getJSONObject(1);
+
+        long startNanos = System.nanoTime();
+        // loads the native library as well
+        if (!setLicense(request, jsonLicense)) {
+            return;
+        }
+        long licenseNanos = System.nanoTime();
+        // the compiled template is cached for the camera scanning as well
+        RecognizerSerializers.INSTANCE.compileRecognizerCollection(jsonRecognizerCollection, WarmRecognizerRunner.fingerprint(jsonRecognizerCollection));
+        long recognizerCollectionNanos = System.nanoTime();
+        if (!setupRecognizerRunner(request, jsonRecognizerCollection)) {
+            return;
+        }
+        long recognizerRunnerNanos = System.nanoTime();
+
+        if (!request.finish()) {
+            return;
+        }
+        JSONObject jsonPhases = new JSONObject();
+        jsonPhases.put("licenseMillis", TimeUnit.NANOSECONDS.toMillis(licenseNanos - startNanos));
+        jsonPhases.put("recognizerCollectionMillis", TimeUnit.NANOSECONDS.toMillis(recognizerCollectionNanos - licenseNanos));
+        jsonPhases.put("recognizerRunnerMillis", TimeUnit.NANOSECONDS.toMillis(recognizerRunnerNanos - recognizerCollectionNanos));
+        JSONObject result = new JSONObject();
+        result.put(REQUEST_ID, request.getId());
+        result.put("phases", jsonPhases);
+        result.put("totalMillis", TimeUnit.NANOSECONDS.toMillis(recognizerRunnerNanos - startNanos));
+        request.getCallbackContext().success(result);
+        // the runner stays initialized for the next scan with the same recognizer collection
+        finishRequest(request);
+    }
+
+    private void submitScanRequest(CallbackContext callbackContext, ScanRequestScheduler.Task task) {
+        if (mScanRequestScheduler.submit(callbackContext, task) == null) {
+            callbackContext.error("Too many scans in progress, at most " + ScanRequestScheduler.MAX_PENDING_REQUESTS + " scans can wait for the current one!");
+        }
+    }
+
+    private void processBatchItem(final ScanRequest request, final JSONArray jsonImages, final int index) {
+        if (request.isFinished()) {
+            // the runner failed and the error is already reported
+            return;
+        }
+        final CallbackContext callbackContext = request.getCallbackContext();
+        if (index >= jsonImages.length()) {
+            if (request.finish()) {
+                JSONObject jsonDone = new JSONObject();
+                try {
+                    jsonDone.put(REQUEST_ID, request.getId());
+                    jsonDone.put(BATCH_DONE, true);
+                } catch (JSONException e) {
+                    throw new RuntimeException(e);
+                }
+                callbackContext.success(jsonDone);
+                finishRequest(request);
             }
+            return;
         }
+        JSONObject jsonImage = jsonImages.optJSONObject(index);
+        String frontImage = jsonImage != null ? jsonImage.optString(FRONT_IMAGE, null) : null;
+        String backImage = jsonImage != null ? jsonImage.optString(BACK_IMAGE, null) : null;
+        recognizeDocument(request, frontImage, backImage, new DirectApiListener() {
+            @Override
+            public void onRecognitionDone(RecognitionSuccessType recognitionSuccessType, JSONObject jsonImageDecoding, JSONObject jsonRecognitionAttempts) {
+                JSONObject jsonItem = new JSONObject();
+                try {
+                    jsonItem.put(REQUEST_ID, request.getId());
+                    jsonItem.put(BATCH_INDEX, index);
+                    jsonItem.put(RESULT_LIST, RecognizerSerializers.INSTANCE.serializeRecognizerResults(request.getRecognizerBundle().getRecognizers(), createResultSerializationContext(request)));
+                    jsonItem.put(IMAGE_DECODING, jsonImageDecoding);
+                    jsonItem.put(RECOGNITION_ATTEMPTS, jsonRecognitionAttempts);
+                } catch (JSONException e) {
+                    throw new RuntimeException(e);
+                }
+                sendScanResult(request, jsonItem, true);
+                processNextBatchItem();
+            }
+            @Override
+            public void onRecognitionFailed(String errorMessage) {
+                JSONObject jsonItem = new JSONObject();
+                try {
+                    jsonItem.put(REQUEST_ID, request.getId());
+                    jsonItem.put(BATCH_INDEX, index);
+                    jsonItem.put(BATCH_ERROR, errorMessage);
+                } catch (JSONException e) {
+                    throw new RuntimeException(e);
+                }
+                PluginResult pluginResult = new PluginResult(PluginResult.Status.OK, jsonItem);
+                pluginResult.setKeepCallback(true);
+                callbackContext.sendPluginResult(pluginResult);
+                processNextBatchItem();
+            }
+
+            private void processNextBatchItem() {
+                // posted instead of called, the next image is decoded on the plugin thread and
+                // items that fail right away do not grow the stack
+                mScanRequestScheduler.stepsOf(request).execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        request.setFirstSideScanned(false);
+                        request.getRecognizerRunner().resetRecognitionState(true);
+                        processBatchItem(request, jsonImages, index + 1);
+                    }
+                });
+            }
+        });
     }
 
-    private void setupRecognizerRunner(JSONObject jsonRecognizerCollection, FirstSideRecognitionCallback mFirstSideRecognitionCallback) {
-        if (mRecognizerRunner != null) {
-            mRecognizerRunner.terminate();
+    /**
+     * Recognizes the front image and, if the recognizer expects the other side of the document,
+     * the back image. The listener is notified once the document is recognized or if it fails.
+     *
+     * The back image is decoded in the background while the front image is recognized, so it is
+     * ready as soon as the recognizer asks for the other side.
+     */
+    private void recognizeDocument(final ScanRequest request, String frontImage, String backImage, final DirectApiListener listener) {
+        if (!isImageProvided(frontImage)) {
+            listener.onRecognitionFailed("The provided image for the 'frontImage' parameter is empty!");
+            return;
+        }
+        InputImageDecoder.DecodedImage decodedFrontImage = InputImageDecoder.decode(cordova.getContext(), frontImage, request.getImageDecodingProfile());
+        if (decodedFrontImage == null) {
+            listener.onRecognitionFailed("Could not decode the image!");
+            return;
         }
-        
-        mRecognizerBundle = RecognizerSerializers.INSTANCE.deserializeRecognizerCollection(jsonRecognizerCollection);
+        final InputImageDecoder.PendingImage pendingBackImage = isImageProvided(backImage)
+                ? InputImageDecoder.decodeAsync(cordova.getThreadPool(), cordova.getContext(), backImage, request.getImageDecodingProfile())
+                : null;
+
+        // decode parameters and recognition attempts of the processed images, keyed by the image parameter name
+        final JSONObject jsonImageDecoding = new JSONObject();
+        final JSONObject jsonRecognitionAttempts = new JSONObject();
+        final ScanResultListener scanResultListenerBackSide = new ScanResultListener() {
+            @Override
+            public void onScanningDone(@NonNull RecognitionSuccessType recognitionSuccessType) {
+                request.setFirstSideScanned(false);
+                if (recognitionSuccessType != RecognitionSuccessType.UNSUCCESSFUL) {
+                    listener.onRecognitionDone(recognitionSuccessType, jsonImageDecoding, jsonRecognitionAttempts);
+                } else {
+                    listener.onRecognitionFailed("Could not extract the information with DirectAPI!");
+                }
+            }
+            @Override
+            public void onUnrecoverableError(@NonNull Throwable throwable) {
+                listener.onRecognitionFailed(throwable.getMessage());
+            }
+        };
 
-        try {
-            mRecognizerRunner = RecognizerRunner.getSingletonInstance();
-        } catch (Exception e) {
-            handleDirectApiError("DirectAPI not supported: " + e.getMessage());
+        ScanResultListener scanResultListenerFrontSide = new ScanResultListener() {
+            @Override
+            public void onScanningDone(@NonNull RecognitionSuccessType recognitionSuccessType) {
+                if (request.isFirstSideScanned()) {
+                    //multiside recognizer used
+                    sendProgressEvent(request, ProgressEventType.FIRST_SIDE_RECOGNIZED, true);
+                    if (pendingBackImage != null) {
+                        InputImageDecoder.DecodedImage decodedBackImage = pendingBackImage.take();
+                        if (decodedBackImage != null) {
+                            sendProgressEvent(request, ProgressEventType.BACK_SIDE_STARTED, false);
+                            recognizeImage(request, decodedBackImage, BACK_IMAGE, jsonImageDecoding, jsonRecognitionAttempts, scanResultListenerBackSide);
+                        } else {
+                            listener.onRecognitionFailed("Could not decode the image!");
+                        }
+                    } else if (recognitionSuccessType != RecognitionSuccessType.UNSUCCESSFUL) {
+                        listener.onRecognitionDone(recognitionSuccessType, jsonImageDecoding, jsonRecognitionAttempts);
+                    } else {
+                        listener.onRecognitionFailed("Could not extract the information from the front side and the back side is empty!");
+                    }
+                    return;
+                }
+                // the back side is not needed, the pending back image is dropped without waiting for it
+                discardBackImage();
+                if (recognitionSuccessType != RecognitionSuccessType.UNSUCCESSFUL) {
+                    //singleside recognizer used
+                    listener.onRecognitionDone(recognitionSuccessType, jsonImageDecoding, jsonRecognitionAttempts);
+                } else {
+                    listener.onRecognitionFailed("Could not extract the information with DirectAPI!");
+                }
+            }
+            @Override
+            public void onUnrecoverableError(@NonNull Throwable throwable) {
+                discardBackImage();
+                listener.onRecognitionFailed(throwable.getMessage());
+            }
+
+            private void discardBackImage() {
+                if (pendingBackImage != null) {
+                    pendingBackImage.discard();
+                }
+            }
+        };
+
+        recognizeImage(request, decodedFrontImage, FRONT_IMAGE, jsonImageDecoding, jsonRecognitionAttempts, scanResultListenerFrontSide);
+    }
+
+    private static boolean isImageProvided(String image) {
+        return image != null && !image.isEmpty() && !image.equals("null");
+    }
+
+    private void getResultImage(JSONArray arguments, final CallbackContext callbackContext) throws JSONException {
+        final String handle = arguments.getString(0);
+        final ImageEncodingProfile profile = ImageEncodingProfile.deserialize(arguments.optJSONObject(1), ImageEncodingProfile.DEFAULT);
+        cordova.getThreadPool().execute(new Runnable() {
+            @Override
+            public void run() {
+                String encodedImage = ResultImageCache.INSTANCE.encodeImageBase64(handle, profile);
+                if (encodedImage != null) {
+                    callbackContext.success(encodedImage);
+                } else {
+                    callbackContext.error("Result image '" + handle + "' is not available, it was either released or evicted from the cache!");
+                }
+            }
+        });
+    }
+
+    private void releaseResultImages(JSONArray arguments, CallbackContext callbackContext) throws JSONException {
+        JSONArray handles = arguments.optJSONArray(0);
+        if (handles == null || handles.length() == 0) {
+            ResultImageCache.INSTANCE.releaseAll();
+        } else {
+            for (int i = 0; i < handles.length(); ++i) {
+                ResultImageCache.INSTANCE.release(handles.getString(i));
+            }
         }
+        callbackContext.success();
+    }
+
+    private void getScanQueueMetrics(CallbackContext callbackContext) throws JSONException {
+        JSONObject jsonMetrics = mScanRequestScheduler.serializeMetrics();
+        jsonMetrics.put("liveBitmapBytes", BitmapManager.INSTANCE.getLiveBytes());
+        jsonMetrics.put("pooledBitmapBytes", BitmapManager.INSTANCE.getPooledBytes());
+        callbackContext.success(jsonMetrics);
+    }
+
+    private static void setResultSerializationSettings(ScanRequest request, JSONObject jsonRecognizerCollection) {
+        ResultSerializationSettings settings = ResultSerializationSettings.deserialize(jsonRecognizerCollection);
+        request.setResultSerializationSettings(settings);
+        // the handle cache is process-wide, the scan started last decides its limit
+        if (settings.getImageDeliveryMode() == ResultSerializationSettings.ImageDeliveryMode.HANDLE) {
+            ResultImageCache.INSTANCE.setSizeLimit(settings.getImageHandleCacheSizeLimit());
+        }
+    }
+
+    /**
+     * @return false if DirectAPI is not available, the error is already reported in that case
+     */
+    private boolean setupRecognizerRunner(final ScanRequest request, JSONObject jsonRecognizerCollection) {
+        setResultSerializationSettings(request, jsonRecognizerCollection);
+        request.setImageDecodingProfile(ImageDecodingProfile.deserialize(jsonRecognizerCollection.optJSONObject("imageDecodingProfile"), ImageDecodingProfile.DEFAULT));
+        request.setRecognitionRetryStrategy(RecognitionRetryStrategy.deserialize(jsonRecognizerCollection.optJSONObject("recognitionRetryStrategy"), RecognitionRetryStrategy.DEFAULT));
 
         MetadataCallbacks metadataCallbacks = new MetadataCallbacks();
-        metadataCallbacks.setFirstSideRecognitionCallback(mFirstSideRecognitionCallback);
-        mRecognizerRunner.setMetadataCallbacks(metadataCallbacks);
-        mRecognizerRunner.initialize(cordova.getContext(), mRecognizerBundle, new DirectApiErrorListener() {
+        metadataCallbacks.setFirstSideRecognitionCallback(new FirstSideRecognitionCallback() {
             @Override
-            public void onRecognizerError(@NonNull Throwable throwable) {
-                handleDirectApiError("Failed to initialize recognizer with DirectAPI: " + throwable.getMessage());
+            public void onFirstSideRecognitionFinished() {
+                request.setFirstSideScanned(true);
             }
         });
+        // the runner is marked as used before the acquisition can fail, so it is released in any case
+        request.setHoldsWarmRecognizerRunner(true);
+        try {
+            // re-initializes the runner only if the recognizer collection changed since the last scan
+            mWarmRecognizerRunner.acquire(jsonRecognizerCollection, metadataCallbacks, new DirectApiErrorListener() {
+                @Override
+                public void onRecognizerError(@NonNull Throwable throwable) {
+                    handleScanError(request, "Failed to initialize recognizer with DirectAPI: " + throwable.getMessage());
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            handleScanError(request, "Invalid settings: " + e.getMessage());
+            return false;
+        } catch (Exception e) {
+            handleScanError(request, "DirectAPI not supported: " + e.getMessage());
+            return false;
+        }
+        request.setRecognizerRunner(mWarmRecognizerRunner.getRecognizerRunner());
+        request.setRecognizerBundle(mWarmRecognizerRunner.getRecognizerBundle());
+        // the initialization error may have been reported synchronously
+        return request.getRecognizerRunner() != null && !request.isFinished();
     }
 
-    private void processImage(String base64Image, ScanResultListener scanResultListener) {
-        Bitmap image = base64ToBitmap(base64Image);
-        if (image != null) {
-            mRecognizerRunner.recognizeBitmap(
-                    base64ToBitmap(base64Image),
-                    Orientation.ORIENTATION_LANDSCAPE_RIGHT,
-                    scanResultListener
-            );
-        } else {
-            handleDirectApiError("Could not decode the Base64 image!");
+    /**
+     * Recognizes the decoded image with the attempts of the request retry strategy and releases its
+     * bitmap once the recognizer is done with it. The decode parameters and the made attempts are
+     * put into {@code jsonImageDecoding} and {@code jsonRecognitionAttempts} under {@code imageKey}.
+     */
+    private void recognizeImage(final ScanRequest request, InputImageDecoder.DecodedImage decodedImage, String imageKey,
+                                JSONObject jsonImageDecoding, JSONObject jsonRecognitionAttempts, ScanResultListener scanResultListener) {
+        final boolean frontSide = !request.isFirstSideScanned();
+        RecognitionAttemptRunner attemptRunner = new RecognitionAttemptRunner(
+                request.getRecognizerRunner(),
+                mScanRequestScheduler.stepsOf(request),
+                // the recognized front side must survive the retries of the back side
+                frontSide,
+                decodedImage.getBitmap(),
+                request.getRecognitionRetryStrategy().createAttempts(decodedImage.getExifRotation()),
+                new RecognitionAttemptRunner.SuccessCondition() {
+                    @Override
+                    public boolean isSuccessful(RecognitionSuccessType recognitionSuccessType) {
+                        // multiside recognizers report the recognized front side only through the callback
+                        return recognitionSuccessType != RecognitionSuccessType.UNSUCCESSFUL || (frontSide && request.isFirstSideScanned());
+                    }
+                },
+                scanResultListener
+        );
+        try {
+            jsonImageDecoding.put(imageKey, decodedImage.serializeDecodeParameters());
+            jsonRecognitionAttempts.put(imageKey, attemptRunner.getJsonAttempts());
+        } catch (JSONException e) {
+            throw new RuntimeException(e);
         }
+        attemptRunner.start();
     }
 
-    private void handleDirectApiResult(RecognitionSuccessType recognitionSuccessType) {
+    private void handleDirectApiResult(ScanRequest request, RecognitionSuccessType recognitionSuccessType, JSONObject jsonImageDecoding, JSONObject jsonRecognitionAttempts) {
         if (recognitionSuccessType != RecognitionSuccessType.UNSUCCESSFUL) {
+            if (!request.finish()) {
+                return;
+            }
             JSONObject result = new JSONObject();
             try {
                 result.put(CANCELLED, false);
+                result.put(REQUEST_ID, request.getId());
             } catch (JSONException e) {
                 throw new RuntimeException(e);
             }
             try {
-                JSONArray resultList = RecognizerSerializers.INSTANCE.serializeRecognizerResults(mRecognizerBundle.getRecognizers());
+                JSONArray resultList = RecognizerSerializers.INSTANCE.serializeRecognizerResults(request.getRecognizerBundle().getRecognizers(), createResultSerializationContext(request));
                 result.put(RESULT_LIST, resultList);
+                result.put(IMAGE_DECODING, jsonImageDecoding);
+                result.put(RECOGNITION_ATTEMPTS, jsonRecognitionAttempts);
             } catch(JSONException e) {
                 throw new RuntimeException(e);
             }
-            mCallbackContext.success(result);
+            sendScanResult(request, result, false);
+            finishRequest(request);
+        } else {
+            handleScanError(request, "Could not extract the information with DirectAPI!");
+        }
+    }
 
+    private void sendScanResult(ScanRequest request, JSONObject result, boolean keepCallback) {
+        PluginResult pluginResult;
+        if (request.getResultSerializationSettings().getResultFormat() == ResultSerializationSettings.ResultFormat.BINARY) {
+            // delivered to JavaScript as an ArrayBuffer
+            pluginResult = new PluginResult(PluginResult.Status.OK, BinaryResultEncoder.encode(result));
         } else {
-            handleDirectApiError("Could not extract the information with DirectAPI!");
+            pluginResult = new PluginResult(PluginResult.Status.OK, result);
+        }
+        pluginResult.setKeepCallback(keepCallback);
+        request.getCallbackContext().sendPluginResult(pluginResult);
+    }
+
+    /**
+     * Sends the event through the kept-alive callback of the request, if the caller asked for
+     * progress events.
+     *
+     * @param withResults whether the current, possibly partial, recognizer results are included
+     */
+    private void sendProgressEvent(ScanRequest request, ProgressEventType type, boolean withResults) {
+        if (!request.isProgressEventsEnabled() || request.isFinished()) {
+            return;
+        }
+        JSONObject jsonEvent = new JSONObject();
+        JSONObject result = new JSONObject();
+        try {
+            jsonEvent.put(PROGRESS_EVENT_TYPE, SerializationUtils.serializeEnum(type));
+            if (withResults) {
+                // partial results come without images, only the final result delivers them
+                jsonEvent.put(RESULT_LIST, RecognizerSerializers.INSTANCE.serializeRecognizerResults(request.getRecognizerBundle().getRecognizers(),
+                        ResultSerializationContext.withoutImages(request.getResultSerializationSettings())));
+            }
+            result.put(REQUEST_ID, request.getId());
+            result.put(PROGRESS_EVENT, jsonEvent);
+        } catch (JSONException e) {
+            throw new RuntimeException(e);
+        }
+        sendScanResult(request, result, true);
+    }
+
+    private ResultSerializationContext createResultSerializationContext(ScanRequest request) {
+        return new ResultSerializationContext(cordova.getContext(), request.getResultSerializationSettings());
+    }
+
+    private void handleScanError(ScanRequest request, String errorMessage) {
+        if (!request.finish()) {
+            return;
+        }
+        request.getCallbackContext().error(errorMessage);
+        request.setFirstSideScanned(false);
+        if (request.getRecognizerRunner() != null) {
+            request.getRecognizerRunner().resetRecognitionState(true);
         }
+        finishRequest(request);
     }
 
-    private void handleDirectApiError(String errorMessage) {
-        mCallbackContext.error(errorMessage);
-        mFirstSideScanned = false;
-        if (mRecognizerRunner != null) {
-            mRecognizerRunner.resetRecognitionState(true);
+    /**
+     * Hands the recognizers over to the next queued request. The final result of the request must
+     * already be sent.
+     */
+    private void finishRequest(ScanRequest request) {
+        // camera requests never acquire the runner, releasing it would hand it away from its holder
+        if (request.holdsWarmRecognizerRunner()) {
+            mWarmRecognizerRunner.release();
         }
+        mScanRequestScheduler.finish(request);
     }
 
-    private boolean setLicense( JSONObject jsonLicense ) throws JSONException {
+    /**
+     * @return false if the license could not be set, the error is already reported in that case
+     */
+    private boolean setLicense(ScanRequest request, JSONObject jsonLicense) throws JSONException {
         MicroblinkSDK.setShowTrialLicenseWarning(
                 jsonLicense.optBoolean("showTrialLicenseKeyWarning", true)
         );
@@ -262,14 +763,14 @@ public class BlinkIDScanner extends CordovaPlugin {
             try {
                 MicroblinkSDK.setLicenseKey(androidLicense, context);
             } catch (LicenceKeyException licenceKeyException) {
-                mCallbackContext.error("Android license key error: " + licenceKeyException.toString());
+                handleScanError(request, "Android license key error: " + licenceKeyException.toString());
                 return false;
             }
         } else {
             try {
                 MicroblinkSDK.setLicenseKey(androidLicense, licensee, context);
             } catch (LicenceKeyException licenceKeyException) {
-                mCallbackContext.error("Android license key error: " + licenceKeyException.toString());
+                handleScanError(request, "Android license key error: " + licenceKeyException.toString());
                 return false;
             }
         }
@@ -277,11 +778,6 @@ public class BlinkIDScanner extends CordovaPlugin {
         return true;
     }
 
-    private Bitmap base64ToBitmap(String base64String) {
-        byte[] decodedBytes = Base64.decode(base64String, Base64.DEFAULT);
-        return BitmapFactory.decodeByteArray(decodedBytes, 0, decodedBytes.length);
-    }
-
     private void setLanguage(String language, String country) {
         LanguageUtils.setLanguageAndCountry(language, country, this.cordova.getContext());
     }
@@ -302,38 +798,50 @@ public class BlinkIDScanner extends CordovaPlugin {
      */
     @Override
     public void onActivityResult(int requestCode, int resultCode, Intent data) {
+        ScanRequest request = mCameraRequest;
+        mCameraRequest = null;
+        if (request == null || !request.finish()) {
+            return;
+        }
 
         if (resultCode == Activity.RESULT_OK) {
 
             JSONObject result = new JSONObject();
             try {
                 result.put(CANCELLED, false);
+                result.put(REQUEST_ID, request.getId());
             } catch (JSONException e) {
                 throw new RuntimeException(e);
             }
 
             if (requestCode == REQUEST_CODE) {
-                mRecognizerBundle.loadFromIntent(data);
+                request.getRecognizerBundle().loadFromIntent(data);
                 try {
-                    JSONArray resultList = RecognizerSerializers.INSTANCE.serializeRecognizerResults(mRecognizerBundle.getRecognizers());
+                    JSONArray resultList = RecognizerSerializers.INSTANCE.serializeRecognizerResults(request.getRecognizerBundle().getRecognizers(), createResultSerializationContext(request));
                     result.put(RESULT_LIST, resultList);
                 } catch(JSONException e) {
                     throw new RuntimeException(e);
                 }
             }
-            mCallbackContext.success(result);
+            sendScanResult(request, result, false);
         } else if (resultCode == Activity.RESULT_CANCELED) {
             JSONObject obj = new JSONObject();
             try {
                 obj.put(CANCELLED, true);
+                obj.put(REQUEST_ID, request.getId());
             } catch (JSONException e) {
                 throw new RuntimeException(e);
             }
-            mCallbackContext.success(obj);
+            request.getCallbackContext().success(obj);
 
         } else {
-            mCallbackContext.error("Unexpected error");
+            request.getCallbackContext().error("Unexpected error");
         }
+        finishRequest(request);
+    }
 
+    private interface DirectApiListener {
+        void onRecognitionDone(RecognitionSuccessType recognitionSuccessType, JSONObject jsonImageDecoding, JSONObject jsonRecognitionAttempts);
+        void onRecognitionFailed(String errorMessage);
     }
-}
\ No newline at end of file
+}
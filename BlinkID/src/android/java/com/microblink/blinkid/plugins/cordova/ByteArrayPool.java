@@ -0,0 +1,76 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of reusable byte arrays grouped into power-of-two size classes.
+ *
+ * Arrays larger than the biggest size class are never pooled, every size class keeps only a few
+ * arrays and the total number of retained bytes is capped.
+ */
+final class ByteArrayPool {
+    static final ByteArrayPool INSTANCE = new ByteArrayPool();
+
+    private static final int MIN_SIZE_CLASS_SHIFT = 16; // 64 KiB
+    private static final int MAX_SIZE_CLASS_SHIFT = 23; // 8 MiB
+    private static final int MAX_ARRAYS_PER_SIZE_CLASS = 2;
+    private static final long MAX_RETAINED_BYTES = 16L << 20;
+
+    private final ArrayDeque<byte[]>[] mSizeClasses;
+    private final AtomicLong mRetainedBytes = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    private ByteArrayPool() {
+        mSizeClasses = new ArrayDeque[MAX_SIZE_CLASS_SHIFT - MIN_SIZE_CLASS_SHIFT + 1];
+        for (int i = 0; i < mSizeClasses.length; ++i) {
+            mSizeClasses[i] = new ArrayDeque<>(MAX_ARRAYS_PER_SIZE_CLASS);
+        }
+    }
+
+    /**
+     * Returns an array of at least {@code minSize} bytes. Its contents are undefined.
+     */
+    byte[] acquire(int minSize) {
+        int sizeClass = sizeClassOf(minSize);
+        if (sizeClass < 0) {
+            return new byte[minSize];
+        }
+        synchronized (mSizeClasses[sizeClass]) {
+            byte[] array = mSizeClasses[sizeClass].pollFirst();
+            if (array != null) {
+                mRetainedBytes.addAndGet(-array.length);
+                return array;
+            }
+        }
+        return new byte[1 << (sizeClass + MIN_SIZE_CLASS_SHIFT)];
+    }
+
+    /**
+     * Returns the array to the pool. The caller must not use the array afterwards.
+     */
+    void release(byte[] array) {
+        int sizeClass = sizeClassOf(array.length);
+        if (sizeClass < 0 || array.length != 1 << (sizeClass + MIN_SIZE_CLASS_SHIFT)) {
+            return;
+        }
+        synchronized (mSizeClasses[sizeClass]) {
+            if (mSizeClasses[sizeClass].size() >= MAX_ARRAYS_PER_SIZE_CLASS) {
+                return;
+            }
+            if (mRetainedBytes.addAndGet(array.length) > MAX_RETAINED_BYTES) {
+                mRetainedBytes.addAndGet(-array.length);
+                return;
+            }
+            mSizeClasses[sizeClass].addFirst(array);
+        }
+    }
+
+    private static int sizeClassOf(int size) {
+        int shift = Math.max(MIN_SIZE_CLASS_SHIFT, 32 - Integer.numberOfLeadingZeros(Math.max(size, 1) - 1));
+        if (shift > MAX_SIZE_CLASS_SHIFT) {
+            return -1;
+        }
+        return shift - MIN_SIZE_CLASS_SHIFT;
+    }
+}
@@ -0,0 +1,42 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared constants of the enums that are serialized by ordinal. {@code values()} clones the
+ * constant array on every call, so serializers and deserializers look the constants up here
+ * instead.
+ */
+public enum EnumRegistry {
+    INSTANCE;
+
+    private final ConcurrentHashMap<Class<?>, List<?>> mConstants = new ConcurrentHashMap<>();
+
+    /**
+     * @return immutable list of the enum constants, in ordinal order
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Enum<T>> List<T> values(Class<T> enumType) {
+        List<T> constants = (List<T>) mConstants.get(enumType);
+        if (constants == null) {
+            constants = Collections.unmodifiableList(Arrays.asList(enumType.getEnumConstants()));
+            mConstants.put(enumType, constants);
+        }
+        return constants;
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no constant with the given ordinal
+     */
+    public <T extends Enum<T>> T fromOrdinal(Class<T> enumType, int ordinal) {
+        List<T> constants = values(enumType);
+        if (ordinal < 0 || ordinal >= constants.size()) {
+            throw new IllegalArgumentException("Invalid " + enumType.getSimpleName() + " value " + ordinal
+                    + ", expected a value from 0 to " + (constants.size() - 1) + "!");
+        }
+        return constants.get(ordinal);
+    }
+}
@@ -0,0 +1,245 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+
+import com.microblink.blinkid.directApi.RecognizerRunner;
+import com.microblink.blinkid.hardware.orientation.Orientation;
+import com.microblink.blinkid.image.ImageBuilder;
+import com.microblink.blinkid.image.InputImage;
+import com.microblink.blinkid.recognition.RecognitionSuccessType;
+import com.microblink.blinkid.view.recognition.ScanResultListener;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds a sequence of recorded frames to the DirectAPI runner as video frames, the way the camera
+ * pipeline does, so recognizers that combine frame results accumulate them across frames.
+ *
+ * Frames are due at a fixed interval after the start, as if they were captured live. While a frame
+ * is recognized, the frame expected to be due once the recognition is done is decoded ahead, the
+ * expectation is based on the duration of the previous recognition. Frames that became overdue
+ * meanwhile are dropped without being decoded, so a slow recognition skips ahead instead of
+ * falling further behind. The sequence stops at the first successful result.
+ *
+ * Frames are selected, taken and handed to the runner on the step executor, never on the thread of
+ * the recognizer callback.
+ */
+final class FrameSequenceRecognizer {
+
+    interface Listener {
+        void onSequenceDone(RecognitionSuccessType recognitionSuccessType, JSONObject jsonFrameStatistics);
+        void onSequenceFailed(String errorMessage);
+    }
+
+    private static final List<String> FRAME_FILE_EXTENSIONS = Arrays.asList("jpg", "jpeg", "png", "webp", "bmp");
+
+    private final Context mContext;
+    private final Executor mStepExecutor;
+    private final Executor mDecodeExecutor;
+    private final RecognizerRunner mRecognizerRunner;
+    private final List<String> mFrames;
+    private final ImageDecodingProfile mImageDecodingProfile;
+    private final long mFrameIntervalNanos;
+    private final Listener mListener;
+
+    private long mStartNanos;
+    private int mNumProcessedFrames;
+    private int mNumDroppedFrames;
+    private int mNumUndecodableFrames;
+    private RecognitionSuccessType mLastRecognitionSuccessType = RecognitionSuccessType.UNSUCCESSFUL;
+    private InputImageDecoder.PendingImage mPrefetchedFrame;
+    private int mPrefetchedFrameIndex;
+    private long mLastRecognitionNanos;
+
+    /**
+     * @param stepExecutor executor that processes the next frame once a frame is recognized
+     * @param decodeExecutor executor that decodes frames ahead
+     * @param frames Base64 encoded frames or their {@code file://} or {@code content://} URIs
+     * @param frameIntervalMillis time between two frames of the recording, 0 to process every frame
+     */
+    FrameSequenceRecognizer(Context context, Executor stepExecutor, Executor decodeExecutor, RecognizerRunner recognizerRunner, List<String> frames,
+                            ImageDecodingProfile imageDecodingProfile, long frameIntervalMillis, Listener listener) {
+        mContext = context;
+        mStepExecutor = stepExecutor;
+        mDecodeExecutor = decodeExecutor;
+        mRecognizerRunner = recognizerRunner;
+        mFrames = frames;
+        mImageDecodingProfile = imageDecodingProfile;
+        mFrameIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, frameIntervalMillis));
+        mListener = listener;
+    }
+
+    /**
+     * Resolves the frames of a frame source, which is either an array of frames or the
+     * {@code file://} URI of a directory. Image files in the directory are ordered by name.
+     *
+     * @return the frames, or {@code null} if the frame source is not valid
+     */
+    static List<String> resolveFrames(Object frameSource) {
+        List<String> frames = new ArrayList<>();
+        if (frameSource instanceof JSONArray) {
+            JSONArray jsonFrames = (JSONArray) frameSource;
+            for (int i = 0; i < jsonFrames.length(); ++i) {
+                frames.add(jsonFrames.optString(i, ""));
+            }
+            return frames;
+        }
+        if (!(frameSource instanceof String) || !((String) frameSource).startsWith("file://")) {
+            return null;
+        }
+        String path = Uri.parse((String) frameSource).getPath();
+        File[] files = path != null ? new File(path).listFiles() : null;
+        if (files == null) {
+            return null;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            String name = file.getName();
+            String extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.US);
+            if (file.isFile() && FRAME_FILE_EXTENSIONS.contains(extension)) {
+                frames.add(Uri.fromFile(file).toString());
+            }
+        }
+        return frames;
+    }
+
+    void start() {
+        mStartNanos = System.nanoTime();
+        processFrame(0);
+    }
+
+    private void processFrame(int nextIndex) {
+        while (true) {
+            int index = selectFrame(nextIndex);
+            if (index >= mFrames.size()) {
+                finish();
+                return;
+            }
+            InputImageDecoder.DecodedImage decodedFrame = takeFrame(index);
+            // a frame that is not due when this one is done would be dropped, it is not decoded ahead
+            prefetchFrame(dueFrame(System.nanoTime() + mLastRecognitionNanos, index + 1));
+            if (decodedFrame != null) {
+                recognizeFrame(index, decodedFrame);
+                return;
+            }
+            ++mNumUndecodableFrames;
+            nextIndex = index + 1;
+        }
+    }
+
+    /**
+     * @return index of the latest frame that is due, but not earlier than {@code nextIndex}
+     */
+    private int selectFrame(int nextIndex) {
+        int index = dueFrame(System.nanoTime(), nextIndex);
+        mNumDroppedFrames += index - nextIndex;
+        return index;
+    }
+
+    /**
+     * @return index of the latest frame that is due at the given time, but not earlier than
+     *         {@code nextIndex}
+     */
+    private int dueFrame(long nanos, int nextIndex) {
+        if (mFrameIntervalNanos == 0 || nextIndex >= mFrames.size()) {
+            return nextIndex;
+        }
+        long dueIndex = (nanos - mStartNanos) / mFrameIntervalNanos;
+        // the last frame stays available once the recording is over
+        return (int) Math.min(Math.max(dueIndex, nextIndex), mFrames.size() - 1);
+    }
+
+    private InputImageDecoder.DecodedImage takeFrame(int index) {
+        InputImageDecoder.PendingImage prefetchedFrame = mPrefetchedFrame;
+        mPrefetchedFrame = null;
+        if (prefetchedFrame != null) {
+            if (mPrefetchedFrameIndex == index) {
+                return prefetchedFrame.take();
+            }
+            prefetchedFrame.discard();
+        }
+        return InputImageDecoder.decode(mContext, mFrames.get(index), mImageDecodingProfile);
+    }
+
+    private void prefetchFrame(int index) {
+        if (index < mFrames.size()) {
+            mPrefetchedFrame = InputImageDecoder.decodeAsync(mDecodeExecutor, mContext, mFrames.get(index), mImageDecodingProfile);
+            mPrefetchedFrameIndex = index;
+        }
+    }
+
+    private void recognizeFrame(final int index, InputImageDecoder.DecodedImage decodedFrame) {
+        final Bitmap bitmap = decodedFrame.getBitmap();
+        RecognitionRetryStrategy.ImageOrientation imageOrientation = RecognitionRetryStrategy.ImageOrientation.fromRotation(decodedFrame.getExifRotation());
+        Orientation orientation = imageOrientation != null ? imageOrientation.getOrientation() : Orientation.ORIENTATION_LANDSCAPE_RIGHT;
+        InputImage inputImage = ImageBuilder.buildImageFromBitmap(bitmap, orientation, null);
+        final long recognitionStartNanos = System.nanoTime();
+        mRecognizerRunner.recognizeVideoImage(inputImage, new ScanResultListener() {
+            @Override
+            public void onScanningDone(@NonNull final RecognitionSuccessType recognitionSuccessType) {
+                mLastRecognitionNanos = System.nanoTime() - recognitionStartNanos;
+                BitmapManager.INSTANCE.release(bitmap);
+                // the next frame may be decoded synchronously or waited for, which must not block the callback thread
+                mStepExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        ++mNumProcessedFrames;
+                        mLastRecognitionSuccessType = recognitionSuccessType;
+                        if (recognitionSuccessType == RecognitionSuccessType.SUCCESSFUL) {
+                            finish();
+                        } else {
+                            processFrame(index + 1);
+                        }
+                    }
+                });
+            }
+            @Override
+            public void onUnrecoverableError(@NonNull Throwable throwable) {
+                BitmapManager.INSTANCE.release(bitmap);
+                discardPrefetchedFrame();
+                mListener.onSequenceFailed(throwable.getMessage());
+            }
+        });
+    }
+
+    private void finish() {
+        discardPrefetchedFrame();
+        if (mLastRecognitionSuccessType == RecognitionSuccessType.UNSUCCESSFUL) {
+            mListener.onSequenceFailed("Could not extract the information from the frame sequence!");
+            return;
+        }
+        // a partial result of the last frame is delivered as well, like the camera does on timeout
+        JSONObject jsonFrameStatistics = new JSONObject();
+        try {
+            jsonFrameStatistics.put("totalFrames", mFrames.size());
+            jsonFrameStatistics.put("processedFrames", mNumProcessedFrames);
+            jsonFrameStatistics.put("droppedFrames", mNumDroppedFrames);
+            jsonFrameStatistics.put("undecodableFrames", mNumUndecodableFrames);
+            jsonFrameStatistics.put("durationMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - mStartNanos));
+        } catch (JSONException e) {
+            throw new RuntimeException(e);
+        }
+        mListener.onSequenceDone(mLastRecognitionSuccessType, jsonFrameStatistics);
+    }
+
+    private void discardPrefetchedFrame() {
+        if (mPrefetchedFrame != null) {
+            mPrefetchedFrame.discard();
+            mPrefetchedFrame = null;
+        }
+    }
+}
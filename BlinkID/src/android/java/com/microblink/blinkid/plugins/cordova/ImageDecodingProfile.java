@@ -0,0 +1,60 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import org.json.JSONObject;
+
+/**
+ * Describes how DirectAPI input images are decoded: the resolution the image is subsampled to
+ * before it is handed to the recognizers. Images are always decoded as ARGB_8888, the format the
+ * recognizers work with.
+ */
+public final class ImageDecodingProfile {
+
+    /**
+     * Longer edge of the frames the recognizers get from the camera. Input images are not
+     * subsampled below it.
+     */
+    private static final int DEFAULT_TARGET_DIMENSION = 1920;
+
+    public static final ImageDecodingProfile DEFAULT = new ImageDecodingProfile(DEFAULT_TARGET_DIMENSION);
+
+    private final int mTargetDimension;
+
+    public ImageDecodingProfile(int targetDimension) {
+        mTargetDimension = Math.max(0, targetDimension);
+    }
+
+    /**
+     * Properties missing from {@code jsonProfile} are taken from {@code defaultProfile}.
+     */
+    public static ImageDecodingProfile deserialize(JSONObject jsonProfile, ImageDecodingProfile defaultProfile) {
+        if (jsonProfile == null) {
+            return defaultProfile;
+        }
+        int targetDimension = jsonProfile.optInt("targetDimension", defaultProfile.mTargetDimension);
+        return new ImageDecodingProfile(targetDimension);
+    }
+
+    /**
+     * @return minimum length of the longer edge of the decoded image in pixels, or 0 if images are
+     *         decoded in their original resolution
+     */
+    public int getTargetDimension() {
+        return mTargetDimension;
+    }
+
+    /**
+     * Returns the largest power of two sample size that keeps the longer image edge at or above the
+     * target dimension.
+     */
+    int computeSampleSize(int width, int height) {
+        int longerEdge = Math.max(width, height);
+        int sampleSize = 1;
+        if (mTargetDimension == 0) {
+            return sampleSize;
+        }
+        while (longerEdge / (sampleSize * 2) >= mTargetDimension) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+}
@@ -0,0 +1,114 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.Rect;
+import android.os.Build;
+
+import org.json.JSONObject;
+
+/**
+ * Describes how a result image is encoded: compression format, quality and the maximum length of
+ * the longer image edge. Images larger than the maximum dimension are downscaled before compression.
+ */
+public final class ImageEncodingProfile {
+
+    public enum Format {
+        JPEG(".jpg"),
+        WEBP(".webp"),
+        PNG(".png");
+
+        private final String mFileExtension;
+
+        Format(String fileExtension) {
+            mFileExtension = fileExtension;
+        }
+
+        public String getFileExtension() {
+            return mFileExtension;
+        }
+    }
+
+    private static final int DEFAULT_QUALITY = 90;
+
+    /** JPEG at quality 90 in the original resolution, which is what the plugin always used. */
+    public static final ImageEncodingProfile DEFAULT = new ImageEncodingProfile(Format.JPEG, DEFAULT_QUALITY, 0);
+
+    private final Format mFormat;
+    private final int mQuality;
+    private final int mMaxDimension;
+
+    public ImageEncodingProfile(Format format, int quality, int maxDimension) {
+        mFormat = format;
+        mQuality = Math.max(0, Math.min(100, quality));
+        mMaxDimension = Math.max(0, maxDimension);
+    }
+
+    /**
+     * Properties missing from {@code jsonProfile} are taken from {@code defaultProfile}.
+     */
+    public static ImageEncodingProfile deserialize(JSONObject jsonProfile, ImageEncodingProfile defaultProfile) {
+        if (jsonProfile == null) {
+            return defaultProfile;
+        }
+        Format format = EnumRegistry.INSTANCE.fromOrdinal(Format.class, jsonProfile.optInt("format", defaultProfile.mFormat.ordinal()));
+        int quality = jsonProfile.optInt("quality", defaultProfile.mQuality);
+        int maxDimension = jsonProfile.optInt("maxDimension", defaultProfile.mMaxDimension);
+        return new ImageEncodingProfile(format, quality, maxDimension);
+    }
+
+    public Format getFormat() {
+        return mFormat;
+    }
+
+    public int getQuality() {
+        return mQuality;
+    }
+
+    /**
+     * @return maximum length of the longer image edge in pixels, or 0 if images are not downscaled
+     */
+    public int getMaxDimension() {
+        return mMaxDimension;
+    }
+
+    @SuppressWarnings("deprecation")
+    Bitmap.CompressFormat getCompressFormat() {
+        switch (mFormat) {
+            case WEBP:
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+                    return Bitmap.CompressFormat.WEBP_LOSSY;
+                }
+                return Bitmap.CompressFormat.WEBP;
+            case PNG:
+                return Bitmap.CompressFormat.PNG;
+            default:
+                return Bitmap.CompressFormat.JPEG;
+        }
+    }
+
+    /**
+     * Returns the bitmap downscaled to the maximum dimension of this profile, or the same bitmap if
+     * it is small enough. A downscaled bitmap is acquired from {@link BitmapManager} and must be
+     * released by the caller.
+     */
+    Bitmap scale(Bitmap bitmap) {
+        int longerEdge = Math.max(bitmap.getWidth(), bitmap.getHeight());
+        if (mMaxDimension == 0 || longerEdge <= mMaxDimension) {
+            return bitmap;
+        }
+        float scale = (float) mMaxDimension / longerEdge;
+        int width = Math.max(1, Math.round(bitmap.getWidth() * scale));
+        int height = Math.max(1, Math.round(bitmap.getHeight() * scale));
+        // scaled images of the same recognizer have the same size on every scan, so the target is usually reused
+        Bitmap scaled = BitmapManager.INSTANCE.acquire(width, height, Bitmap.Config.ARGB_8888);
+        // a pooled target still holds the pixels of an earlier image, translucent pixels must replace them instead of blending
+        Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        paint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.SRC));
+        new Canvas(scaled).drawBitmap(bitmap, null, new Rect(0, 0, width, height), paint);
+        return scaled;
+    }
+}
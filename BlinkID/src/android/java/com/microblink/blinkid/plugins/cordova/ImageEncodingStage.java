@@ -0,0 +1,107 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Encodes all images requested while serializing a result concurrently on a bounded executor.
+ *
+ * Images are scheduled with {@link #put(JSONObject, String, Callable)}, which reserves the key in
+ * the target JSON object so that the key order stays the same as with inline encoding. The encoded
+ * values are written into the JSON objects by {@link #join()}, on the calling thread.
+ */
+final class ImageEncodingStage {
+    private static final int NUM_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+    private final List<PendingImage> mPendingImages = new ArrayList<>();
+
+    void put(JSONObject jsonObject, String key, Callable<String> encoder) throws JSONException {
+        jsonObject.put(key, JSONObject.NULL);
+        PendingImage pendingImage = new PendingImage(jsonObject, key, new FutureTask<>(encoder));
+        mPendingImages.add(pendingImage);
+        EXECUTOR.execute(pendingImage.task);
+    }
+
+    /**
+     * Waits for all scheduled images and puts them into their JSON objects. Tasks that were not
+     * picked up by the executor yet are run on the calling thread instead of waiting for a worker.
+     */
+    void join() throws JSONException {
+        try {
+            for (int i = mPendingImages.size() - 1; i >= 0; --i) {
+                // no-op if a worker has already started the task
+                mPendingImages.get(i).task.run();
+            }
+            for (PendingImage pendingImage : mPendingImages) {
+                String encodedImage = pendingImage.task.get();
+                if (encodedImage != null) {
+                    pendingImage.jsonObject.put(pendingImage.key, encodedImage);
+                } else {
+                    pendingImage.jsonObject.remove(pendingImage.key);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            cancel();
+            throw new RuntimeException(e.getCause());
+        } finally {
+            mPendingImages.clear();
+        }
+    }
+
+    private void cancel() {
+        for (PendingImage pendingImage : mPendingImages) {
+            pendingImage.task.cancel(false);
+        }
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                NUM_THREADS,
+                NUM_THREADS,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    private final AtomicInteger mCounter = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "BlinkIdImageEncoder-" + mCounter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static final class PendingImage {
+        final JSONObject jsonObject;
+        final String key;
+        final FutureTask<String> task;
+
+        PendingImage(JSONObject jsonObject, String key, FutureTask<String> task) {
+            this.jsonObject = jsonObject;
+            this.key = key;
+            this.task = task;
+        }
+    }
+}
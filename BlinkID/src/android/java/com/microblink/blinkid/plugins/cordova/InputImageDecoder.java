@@ -0,0 +1,371 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.media.ExifInterface;
+import android.net.Uri;
+import android.os.Build;
+import android.os.ParcelFileDescriptor;
+import android.util.Base64;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+/**
+ * Decodes DirectAPI input images into bitmaps as described by an {@link ImageDecodingProfile}.
+ * Images are given either as Base64 strings or as {@code file://} or {@code content://} URIs.
+ *
+ * The image bounds are read first, so the image is decoded only once, already subsampled to the
+ * target resolution and as ARGB_8888. The decoded bitmap reuses the memory of a
+ * pooled bitmap from {@link BitmapManager} when one is large enough.
+ */
+final class InputImageDecoder {
+    // ARGB_8888
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private InputImageDecoder() {
+    }
+
+    private interface ImageSource {
+        Bitmap decode(BitmapFactory.Options options);
+
+        /**
+         * @throws IOException if the EXIF data can not be read
+         */
+        ExifInterface readExif() throws IOException;
+    }
+
+    static boolean isUri(String image) {
+        return image.startsWith("file://") || image.startsWith("content://");
+    }
+
+    /**
+     * @param image Base64 encoded image, or {@code file://} or {@code content://} URI of the image
+     * @return the decoded image, or {@code null} if the image could not be read or decoded. The
+     *         bitmap of the decoded image must be released to {@link BitmapManager}.
+     */
+    static DecodedImage decode(Context context, String image, ImageDecodingProfile profile) {
+        if (isUri(image)) {
+            return decodeUri(context, Uri.parse(image), profile);
+        }
+        return decodeBase64(image, profile);
+    }
+
+    /**
+     * Starts decoding the image on the executor. The decoded image must be either taken with
+     * {@link PendingImage#take()} or discarded with {@link PendingImage#discard()}.
+     */
+    static PendingImage decodeAsync(Executor executor, Context context, String image, ImageDecodingProfile profile) {
+        PendingImage pendingImage = new PendingImage(context, image, profile);
+        executor.execute(pendingImage);
+        return pendingImage;
+    }
+
+    private static DecodedImage decodeBase64(String base64Image, ImageDecodingProfile profile) {
+        final byte[] bytes;
+        try {
+            bytes = Base64.decode(base64Image, Base64.DEFAULT);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        return decode(new ImageSource() {
+            @Override
+            public Bitmap decode(BitmapFactory.Options options) {
+                return BitmapFactory.decodeByteArray(bytes, 0, bytes.length, options);
+            }
+
+            @Override
+            public ExifInterface readExif() throws IOException {
+                return new ExifInterface(new ByteArrayInputStream(bytes));
+            }
+        }, profile);
+    }
+
+    /**
+     * The image is decoded straight from its file descriptor, so the encoded image is never copied
+     * into the Java heap.
+     */
+    private static DecodedImage decodeUri(final Context context, final Uri uri, ImageDecodingProfile profile) {
+        final ParcelFileDescriptor parcelFileDescriptor = openFileDescriptor(context, uri);
+        if (parcelFileDescriptor == null) {
+            return null;
+        }
+        // content providers may return pipes, which can be read only once and have no size
+        final boolean seekable = parcelFileDescriptor.getStatSize() >= 0;
+        try {
+            return decode(new ImageSource() {
+                private boolean mOpenedDescriptorUsed;
+
+                @Override
+                public Bitmap decode(BitmapFactory.Options options) {
+                    ParcelFileDescriptor fileDescriptor = nextFileDescriptor();
+                    if (fileDescriptor == null) {
+                        return null;
+                    }
+                    try {
+                        // decodeFileDescriptor restores the position of a seekable descriptor
+                        return BitmapFactory.decodeFileDescriptor(fileDescriptor.getFileDescriptor(), null, options);
+                    } finally {
+                        closeIfReopened(fileDescriptor);
+                    }
+                }
+
+                @Override
+                public ExifInterface readExif() throws IOException {
+                    ParcelFileDescriptor fileDescriptor = nextFileDescriptor();
+                    if (fileDescriptor == null) {
+                        throw new IOException("Could not reopen " + uri);
+                    }
+                    try {
+                        // the attributes are read in the constructor
+                        return new ExifInterface(fileDescriptor.getFileDescriptor());
+                    } finally {
+                        closeIfReopened(fileDescriptor);
+                    }
+                }
+
+                /**
+                 * @return the opened descriptor if it can be read again, otherwise the URI is
+                 *         opened again, {@code null} if that fails
+                 */
+                private ParcelFileDescriptor nextFileDescriptor() {
+                    if (seekable || !mOpenedDescriptorUsed) {
+                        mOpenedDescriptorUsed = true;
+                        return parcelFileDescriptor;
+                    }
+                    return openFileDescriptor(context, uri);
+                }
+
+                private void closeIfReopened(ParcelFileDescriptor fileDescriptor) {
+                    if (fileDescriptor != parcelFileDescriptor) {
+                        closeQuietly(fileDescriptor);
+                    }
+                }
+            }, profile);
+        } finally {
+            closeQuietly(parcelFileDescriptor);
+        }
+    }
+
+    /**
+     * @return the opened descriptor, or {@code null} if the URI can not be opened
+     */
+    private static ParcelFileDescriptor openFileDescriptor(Context context, Uri uri) {
+        try {
+            // ContentResolver opens file URIs as well
+            return context.getContentResolver().openFileDescriptor(uri, "r");
+        } catch (IOException | SecurityException e) {
+            return null;
+        }
+    }
+
+    private static void closeQuietly(ParcelFileDescriptor parcelFileDescriptor) {
+        try {
+            parcelFileDescriptor.close();
+        } catch (IOException ignorable) {}
+    }
+
+    private static DecodedImage decode(ImageSource source, ImageDecodingProfile profile) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        source.decode(options);
+        int sourceWidth = options.outWidth;
+        int sourceHeight = options.outHeight;
+        if (sourceWidth <= 0 || sourceHeight <= 0) {
+            return null;
+        }
+
+        int sampleSize = profile.computeSampleSize(sourceWidth, sourceHeight);
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize;
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        // decoded bitmaps are mutable so they can be pooled and reused for the next input image
+        options.inMutable = true;
+
+        long byteCount = (long) divideRoundingUp(sourceWidth, sampleSize) * divideRoundingUp(sourceHeight, sampleSize) * BYTES_PER_PIXEL;
+        Bitmap reusable = BitmapManager.INSTANCE.acquireReusable(byteCount);
+        options.inBitmap = reusable;
+        Bitmap bitmap = null;
+        try {
+            bitmap = source.decode(options);
+        } catch (IllegalArgumentException e) {
+            // the decoder could not reuse the pooled bitmap, e.g. because it ignored the preferred config
+        }
+        if (bitmap != reusable && reusable != null) {
+            BitmapManager.INSTANCE.release(reusable);
+            reusable = null;
+            if (bitmap == null) {
+                options.inBitmap = null;
+                bitmap = source.decode(options);
+            }
+        }
+        if (bitmap == null) {
+            return null;
+        }
+        if (reusable == null) {
+            BitmapManager.INSTANCE.track(bitmap);
+        }
+        return new DecodedImage(bitmap, sourceWidth, sourceHeight, sampleSize, reusable != null, readExifRotation(source));
+    }
+
+    /**
+     * @return clockwise rotation in degrees that makes the image upright, 0 if it is unknown
+     */
+    private static int readExifRotation(ImageSource source) {
+        // reading EXIF from streams and file descriptors is available since Android 7.0
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+            return 0;
+        }
+        int exifOrientation;
+        try {
+            exifOrientation = source.readExif().getAttributeInt(ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        } catch (IOException | RuntimeException e) {
+            // images without EXIF support, e.g. PNG on older Android versions
+            return 0;
+        }
+        switch (exifOrientation) {
+            case ExifInterface.ORIENTATION_ROTATE_90:
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                return 90;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                return 180;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                return 270;
+            default:
+                return 0;
+        }
+    }
+
+    private static int divideRoundingUp(int dividend, int divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    /**
+     * Image that is decoded in the background.
+     */
+    static final class PendingImage implements Runnable {
+        private final Context mContext;
+        private final String mImage;
+        private final ImageDecodingProfile mProfile;
+
+        // guarded by this
+        private boolean mStarted;
+        private boolean mDone;
+        private boolean mDiscarded;
+        private DecodedImage mDecodedImage;
+
+        PendingImage(Context context, String image, ImageDecodingProfile profile) {
+            mContext = context;
+            mImage = image;
+            mProfile = profile;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (mStarted || mDiscarded) {
+                    return;
+                }
+                mStarted = true;
+            }
+            DecodedImage decodedImage = decode(mContext, mImage, mProfile);
+            synchronized (this) {
+                if (mDiscarded && decodedImage != null) {
+                    BitmapManager.INSTANCE.release(decodedImage.getBitmap());
+                } else {
+                    mDecodedImage = decodedImage;
+                }
+                mDone = true;
+                notifyAll();
+            }
+        }
+
+        /**
+         * Waits for the decoded image. If the executor has not started decoding yet, the image is
+         * decoded on the calling thread.
+         *
+         * @return the decoded image or {@code null} if it could not be decoded
+         */
+        DecodedImage take() {
+            run();
+            boolean interrupted = false;
+            synchronized (this) {
+                while (!mDone && !mDiscarded) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                DecodedImage decodedImage = mDecodedImage;
+                mDecodedImage = null;
+                return decodedImage;
+            }
+        }
+
+        /**
+         * Releases the decoded image without waiting for it. An image that is still being decoded
+         * is released as soon as it is done, a decode that has not started yet is skipped.
+         */
+        synchronized void discard() {
+            mDiscarded = true;
+            if (mDecodedImage != null) {
+                BitmapManager.INSTANCE.release(mDecodedImage.getBitmap());
+                mDecodedImage = null;
+            }
+        }
+    }
+
+    static final class DecodedImage {
+        private final Bitmap mBitmap;
+        private final int mSourceWidth;
+        private final int mSourceHeight;
+        private final int mSampleSize;
+        private final boolean mReusedBitmap;
+        private final int mExifRotation;
+
+        DecodedImage(Bitmap bitmap, int sourceWidth, int sourceHeight, int sampleSize, boolean reusedBitmap, int exifRotation) {
+            mBitmap = bitmap;
+            mSourceWidth = sourceWidth;
+            mSourceHeight = sourceHeight;
+            mSampleSize = sampleSize;
+            mReusedBitmap = reusedBitmap;
+            mExifRotation = exifRotation;
+        }
+
+        Bitmap getBitmap() {
+            return mBitmap;
+        }
+
+        /**
+         * @return clockwise rotation in degrees from the image EXIF data, 0 if there is none
+         */
+        int getExifRotation() {
+            return mExifRotation;
+        }
+
+        /**
+         * Describes the decode parameters that were used for the image.
+         */
+        JSONObject serializeDecodeParameters() throws JSONException {
+            JSONObject jsonDecodeParameters = new JSONObject();
+            jsonDecodeParameters.put("sourceWidth", mSourceWidth);
+            jsonDecodeParameters.put("sourceHeight", mSourceHeight);
+            jsonDecodeParameters.put("width", mBitmap.getWidth());
+            jsonDecodeParameters.put("height", mBitmap.getHeight());
+            jsonDecodeParameters.put("sampleSize", mSampleSize);
+            jsonDecodeParameters.put("reusedBitmap", mReusedBitmap);
+            jsonDecodeParameters.put("exifRotation", mExifRotation);
+            return jsonDecodeParameters;
+        }
+    }
+}
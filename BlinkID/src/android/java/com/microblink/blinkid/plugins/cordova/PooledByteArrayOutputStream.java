@@ -0,0 +1,68 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Output stream that writes into arrays borrowed from {@link ByteArrayPool}.
+ *
+ * Unlike {@link java.io.ByteArrayOutputStream} the written bytes are never copied into a new
+ * array; they are read directly from the pooled buffer. {@link #release()} must be called once
+ * the written data is no longer needed.
+ */
+final class PooledByteArrayOutputStream extends OutputStream {
+    private byte[] mBuffer;
+    private int mCount;
+
+    PooledByteArrayOutputStream(int initialCapacity) {
+        mBuffer = ByteArrayPool.INSTANCE.acquire(initialCapacity);
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(mCount + 1);
+        mBuffer[mCount++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(mCount + len);
+        System.arraycopy(b, off, mBuffer, mCount, len);
+        mCount += len;
+    }
+
+    /**
+     * Interprets the written bytes as ASCII, e.g. the output of a Base64 encoder.
+     */
+    String toAsciiString() {
+        return new String(mBuffer, 0, mCount, StandardCharsets.US_ASCII);
+    }
+
+    byte[] toByteArray() {
+        byte[] bytes = new byte[mCount];
+        System.arraycopy(mBuffer, 0, bytes, 0, mCount);
+        return bytes;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        out.write(mBuffer, 0, mCount);
+    }
+
+    void release() {
+        if (mBuffer != null) {
+            ByteArrayPool.INSTANCE.release(mBuffer);
+            mBuffer = null;
+            mCount = 0;
+        }
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity - mBuffer.length > 0) {
+            byte[] newBuffer = ByteArrayPool.INSTANCE.acquire(Math.max(minCapacity, mBuffer.length << 1));
+            System.arraycopy(mBuffer, 0, newBuffer, 0, mCount);
+            ByteArrayPool.INSTANCE.release(mBuffer);
+            mBuffer = newBuffer;
+        }
+    }
+}
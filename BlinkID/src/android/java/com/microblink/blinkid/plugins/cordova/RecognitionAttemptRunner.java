@@ -0,0 +1,162 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
+
+import androidx.annotation.NonNull;
+
+import com.microblink.blinkid.directApi.RecognizerRunner;
+import com.microblink.blinkid.recognition.RecognitionSuccessType;
+import com.microblink.blinkid.view.recognition.ScanResultListener;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recognizes a decoded image with the attempts of a {@link RecognitionRetryStrategy}, one after
+ * another, until an attempt succeeds or all of them are made. Downscaled copies of the image are
+ * drawn into pooled bitmaps, one scale at a time.
+ *
+ * Every attempt is reported with its orientation, scale, duration and outcome.
+ *
+ * A retry is posted to the executor instead of being started from the callback of the failed
+ * attempt. On the front side, the recognition state of the failed attempt is reset first, so
+ * combined recognizers do not carry partial results of a rejected orientation into the next
+ * attempt. On the back side, the state is kept because it holds the recognized front side.
+ */
+final class RecognitionAttemptRunner {
+
+    interface SuccessCondition {
+        boolean isSuccessful(RecognitionSuccessType recognitionSuccessType);
+    }
+
+    private final RecognizerRunner mRecognizerRunner;
+    private final Executor mRetryExecutor;
+    private final boolean mResetBeforeRetry;
+    private final Bitmap mBitmap;
+    private final List<RecognitionRetryStrategy.Attempt> mAttempts;
+    private final SuccessCondition mSuccessCondition;
+    private final ScanResultListener mScanResultListener;
+    private final JSONArray mJsonAttempts = new JSONArray();
+
+    private Bitmap mScaledBitmap;
+    private float mScaledBitmapScale;
+
+    /**
+     * @param retryExecutor executor the retries are started on
+     * @param resetBeforeRetry whether the recognition state is reset before a retry, true for the
+     *                         front side of a document
+     * @param bitmap image to recognize, released to {@link BitmapManager} once all attempts are done
+     */
+    RecognitionAttemptRunner(RecognizerRunner recognizerRunner, Executor retryExecutor, boolean resetBeforeRetry, Bitmap bitmap,
+                             List<RecognitionRetryStrategy.Attempt> attempts, SuccessCondition successCondition, ScanResultListener scanResultListener) {
+        mRecognizerRunner = recognizerRunner;
+        mRetryExecutor = retryExecutor;
+        mResetBeforeRetry = resetBeforeRetry;
+        mBitmap = bitmap;
+        mAttempts = attempts;
+        mSuccessCondition = successCondition;
+        mScanResultListener = scanResultListener;
+    }
+
+    /**
+     * Reported attempts, filled in as the attempts are made.
+     */
+    JSONArray getJsonAttempts() {
+        return mJsonAttempts;
+    }
+
+    void start() {
+        runAttempt(0);
+    }
+
+    private void runAttempt(final int index) {
+        final RecognitionRetryStrategy.Attempt attempt = mAttempts.get(index);
+        final long startNanos = System.nanoTime();
+        mRecognizerRunner.recognizeBitmap(
+                getScaledBitmap(attempt.scale),
+                attempt.orientation.getOrientation(),
+                new ScanResultListener() {
+                    @Override
+                    public void onScanningDone(@NonNull RecognitionSuccessType recognitionSuccessType) {
+                        boolean successful = mSuccessCondition.isSuccessful(recognitionSuccessType);
+                        reportAttempt(attempt, startNanos, successful);
+                        if (!successful && index + 1 < mAttempts.size()) {
+                            retry(index + 1);
+                            return;
+                        }
+                        releaseBitmaps();
+                        mScanResultListener.onScanningDone(recognitionSuccessType);
+                    }
+                    @Override
+                    public void onUnrecoverableError(@NonNull Throwable throwable) {
+                        reportAttempt(attempt, startNanos, false);
+                        releaseBitmaps();
+                        mScanResultListener.onUnrecoverableError(throwable);
+                    }
+                }
+        );
+    }
+
+    private void retry(final int index) {
+        mRetryExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (mResetBeforeRetry) {
+                    mRecognizerRunner.resetRecognitionState(true);
+                }
+                runAttempt(index);
+            }
+        });
+    }
+
+    private Bitmap getScaledBitmap(float scale) {
+        if (scale >= 1.f) {
+            return mBitmap;
+        }
+        if (mScaledBitmap != null && mScaledBitmapScale == scale) {
+            return mScaledBitmap;
+        }
+        BitmapManager.INSTANCE.release(mScaledBitmap);
+        int width = Math.max(1, Math.round(mBitmap.getWidth() * scale));
+        int height = Math.max(1, Math.round(mBitmap.getHeight() * scale));
+        mScaledBitmap = BitmapManager.INSTANCE.acquire(width, height, mBitmap.getConfig());
+        mScaledBitmapScale = scale;
+
+        Matrix matrix = new Matrix();
+        matrix.setScale((float) width / mBitmap.getWidth(), (float) height / mBitmap.getHeight());
+        // the pooled bitmap still holds the pixels of an earlier image, they must be replaced instead of blended
+        Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+        paint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.SRC));
+        new Canvas(mScaledBitmap).drawBitmap(mBitmap, matrix, paint);
+        return mScaledBitmap;
+    }
+
+    private void releaseBitmaps() {
+        BitmapManager.INSTANCE.release(mScaledBitmap);
+        mScaledBitmap = null;
+        BitmapManager.INSTANCE.release(mBitmap);
+    }
+
+    private void reportAttempt(RecognitionRetryStrategy.Attempt attempt, long startNanos, boolean successful) {
+        JSONObject jsonAttempt = new JSONObject();
+        try {
+            jsonAttempt.put("orientation", SerializationUtils.serializeEnum(attempt.orientation));
+            jsonAttempt.put("scale", attempt.scale);
+            jsonAttempt.put("durationMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            jsonAttempt.put("successful", successful);
+        } catch (JSONException e) {
+            throw new RuntimeException(e);
+        }
+        mJsonAttempts.put(jsonAttempt);
+    }
+}
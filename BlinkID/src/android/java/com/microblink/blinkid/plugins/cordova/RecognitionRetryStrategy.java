@@ -0,0 +1,141 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import com.microblink.blinkid.hardware.orientation.Orientation;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes how DirectAPI retries the recognition of an input image: the orientations and the
+ * downscale factors that are tried, in order, until the recognizers succeed.
+ */
+public final class RecognitionRetryStrategy {
+
+    /**
+     * Orientation of the document in the input image, named after the orientation of the device
+     * that would have taken the image.
+     */
+    public enum ImageOrientation {
+        /** The image is upright. */
+        LANDSCAPE_RIGHT(Orientation.ORIENTATION_LANDSCAPE_RIGHT, 0),
+        /** The image must be rotated by 90 degrees clockwise to be upright. */
+        PORTRAIT(Orientation.ORIENTATION_PORTRAIT, 90),
+        /** The image is upside down. */
+        LANDSCAPE_LEFT(Orientation.ORIENTATION_LANDSCAPE_LEFT, 180),
+        /** The image must be rotated by 90 degrees counterclockwise to be upright. */
+        PORTRAIT_UPSIDE(Orientation.ORIENTATION_PORTRAIT_UPSIDE, 270);
+
+        private final Orientation mOrientation;
+        private final int mRotationDegrees;
+
+        ImageOrientation(Orientation orientation, int rotationDegrees) {
+            mOrientation = orientation;
+            mRotationDegrees = rotationDegrees;
+        }
+
+        Orientation getOrientation() {
+            return mOrientation;
+        }
+
+        /**
+         * @param rotationDegrees clockwise rotation that makes the image upright, as stored in EXIF
+         * @return matching orientation or {@code null} if the rotation is not a multiple of 90 degrees
+         */
+        static ImageOrientation fromRotation(int rotationDegrees) {
+            for (ImageOrientation imageOrientation : EnumRegistry.INSTANCE.values(ImageOrientation.class)) {
+                if (imageOrientation.mRotationDegrees == rotationDegrees) {
+                    return imageOrientation;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Single recognition of the input image. */
+    static final class Attempt {
+        final ImageOrientation orientation;
+        final float scale;
+
+        Attempt(ImageOrientation orientation, float scale) {
+            this.orientation = orientation;
+            this.scale = scale;
+        }
+    }
+
+    /**
+     * Recognizes the image once in its decoded resolution, like DirectAPI without retries. If the
+     * EXIF data tells that the image is rotated, that orientation is tried first. Sweeping all
+     * orientations is opt-in, a document that can not be recognized would take four recognitions.
+     */
+    public static final RecognitionRetryStrategy DEFAULT = new RecognitionRetryStrategy(
+            Collections.singletonList(ImageOrientation.LANDSCAPE_RIGHT), new float[] {1.f}, true);
+
+    private final List<ImageOrientation> mOrientations;
+    private final float[] mScales;
+    private final boolean mUseExifOrientation;
+
+    public RecognitionRetryStrategy(List<ImageOrientation> orientations, float[] scales, boolean useExifOrientation) {
+        mOrientations = orientations.isEmpty()
+                ? Collections.singletonList(ImageOrientation.LANDSCAPE_RIGHT)
+                : Collections.unmodifiableList(new ArrayList<>(orientations));
+        mScales = scales.length == 0 ? new float[] {1.f} : scales.clone();
+        mUseExifOrientation = useExifOrientation;
+    }
+
+    /**
+     * Properties missing from {@code jsonStrategy} are taken from {@code defaultStrategy}.
+     */
+    public static RecognitionRetryStrategy deserialize(JSONObject jsonStrategy, RecognitionRetryStrategy defaultStrategy) {
+        if (jsonStrategy == null) {
+            return defaultStrategy;
+        }
+        List<ImageOrientation> orientations = defaultStrategy.mOrientations;
+        JSONArray jsonOrientations = jsonStrategy.optJSONArray("orientations");
+        if (jsonOrientations != null) {
+            orientations = new ArrayList<>(jsonOrientations.length());
+            for (int i = 0; i < jsonOrientations.length(); ++i) {
+                orientations.add(EnumRegistry.INSTANCE.fromOrdinal(ImageOrientation.class, jsonOrientations.optInt(i)));
+            }
+        }
+        float[] scales = defaultStrategy.mScales;
+        JSONArray jsonScales = jsonStrategy.optJSONArray("scales");
+        if (jsonScales != null) {
+            scales = new float[jsonScales.length()];
+            for (int i = 0; i < scales.length; ++i) {
+                // upscaling does not add information, only downscale factors are used
+                scales[i] = (float) Math.max(0.1, Math.min(1.0, jsonScales.optDouble(i, 1.0)));
+            }
+        }
+        boolean useExifOrientation = jsonStrategy.optBoolean("useExifOrientation", defaultStrategy.mUseExifOrientation);
+        return new RecognitionRetryStrategy(orientations, scales, useExifOrientation);
+    }
+
+    /**
+     * Returns the attempts for an image in the order they are made: every scale is tried with every
+     * orientation before the next scale. A rotated EXIF orientation, if used, is tried first at
+     * every scale.
+     *
+     * @param exifRotationDegrees clockwise rotation from the image EXIF data, 0 if there is none
+     */
+    List<Attempt> createAttempts(int exifRotationDegrees) {
+        List<ImageOrientation> orientations = mOrientations;
+        // upright EXIF orientation is indistinguishable from a missing one and keeps the configured order
+        ImageOrientation exifOrientation = mUseExifOrientation && exifRotationDegrees != 0 ? ImageOrientation.fromRotation(exifRotationDegrees) : null;
+        if (exifOrientation != null && orientations.get(0) != exifOrientation) {
+            orientations = new ArrayList<>(mOrientations);
+            orientations.remove(exifOrientation);
+            orientations.add(0, exifOrientation);
+        }
+        List<Attempt> attempts = new ArrayList<>(orientations.size() * mScales.length);
+        for (float scale : mScales) {
+            for (ImageOrientation orientation : orientations) {
+                attempts.add(new Attempt(orientation, scale));
+            }
+        }
+        return attempts;
+    }
+}
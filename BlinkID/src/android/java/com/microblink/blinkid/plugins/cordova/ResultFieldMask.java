@@ -0,0 +1,41 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import org.json.JSONArray;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Set of result fields that a recognizer serialization should produce. Fields that are not included
+ * are neither read from the recognizer result nor put into the serialized result.
+ */
+public final class ResultFieldMask {
+
+    /** Mask that includes every field. */
+    public static final ResultFieldMask ALL = new ResultFieldMask(null);
+
+    // null if all fields are included
+    private final Set<String> mFields;
+
+    private ResultFieldMask(Set<String> fields) {
+        mFields = fields;
+    }
+
+    /**
+     * @param jsonFieldMask array of field names, or {@code null} to include all fields
+     */
+    public static ResultFieldMask deserialize(JSONArray jsonFieldMask) {
+        if (jsonFieldMask == null) {
+            return ALL;
+        }
+        Set<String> fields = new HashSet<>();
+        for (int i = 0; i < jsonFieldMask.length(); ++i) {
+            fields.add(jsonFieldMask.optString(i));
+        }
+        return new ResultFieldMask(fields);
+    }
+
+    public boolean includes(String field) {
+        return mFields == null || mFields.contains(field);
+    }
+}
\ No newline at end of file
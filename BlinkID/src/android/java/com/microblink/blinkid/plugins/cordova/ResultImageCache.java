@@ -0,0 +1,130 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import com.microblink.blinkid.image.Image;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds unencoded result images that were delivered to JavaScript as handles.
+ *
+ * The cache is bounded by the approximate number of bytes held by its images. When the limit is
+ * exceeded, the least recently used images are evicted and disposed. An image that is being
+ * encoded while it is evicted is disposed once its encoding finishes.
+ *
+ * The cache and its limit are shared by the whole process. Every scan that delivers images as
+ * handles sets the limit when it starts, so the limit of the most recently started scan applies
+ * to the images of all scans. Under memory pressure all images are released.
+ */
+final class ResultImageCache {
+    static final ResultImageCache INSTANCE = new ResultImageCache();
+
+    static final long DEFAULT_SIZE_LIMIT = 48L << 20;
+
+    private static final String HANDLE_PREFIX = "blinkid-image-";
+    // results hold BGRA images, so this over-estimates camera frames which are stored as YUV
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final LinkedHashMap<String, Entry> mEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private long mSizeLimit = DEFAULT_SIZE_LIMIT;
+    private long mSize;
+    private long mNextHandleId;
+
+    private ResultImageCache() {
+    }
+
+    /**
+     * Sets the limit for all cached images, including those of earlier scans.
+     */
+    synchronized void setSizeLimit(long sizeLimit) {
+        mSizeLimit = sizeLimit;
+        evict();
+    }
+
+    /**
+     * Stores a copy of the image and returns the handle under which it can be retrieved.
+     */
+    String put(Image image) {
+        Entry entry = new Entry(image.clone(), (long) image.getWidth() * image.getHeight() * BYTES_PER_PIXEL);
+        synchronized (this) {
+            String handle = HANDLE_PREFIX + (mNextHandleId++);
+            mEntries.put(handle, entry);
+            mSize += entry.size;
+            evict();
+            return handle;
+        }
+    }
+
+    /**
+     * Encodes the image stored under the handle to Base64.
+     *
+     * @return encoded image or {@code null} if the handle is unknown or was already released
+     */
+    String encodeImageBase64(String handle, ImageEncodingProfile profile) {
+        Entry entry;
+        synchronized (this) {
+            entry = mEntries.get(handle);
+            if (entry == null) {
+                return null;
+            }
+            ++entry.numUsers;
+        }
+        try {
+            return SerializationUtils.encodeImageBase64(entry.image, profile);
+        } finally {
+            synchronized (this) {
+                --entry.numUsers;
+                disposeIfUnused(entry);
+            }
+        }
+    }
+
+    synchronized void release(String handle) {
+        Entry entry = mEntries.remove(handle);
+        if (entry != null) {
+            remove(entry);
+        }
+    }
+
+    synchronized void releaseAll() {
+        for (Entry entry : mEntries.values()) {
+            remove(entry);
+        }
+        mEntries.clear();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> iterator = mEntries.entrySet().iterator();
+        // the most recently used image is kept even if it alone exceeds the limit
+        while (mSize > mSizeLimit && mEntries.size() > 1) {
+            Entry entry = iterator.next().getValue();
+            iterator.remove();
+            remove(entry);
+        }
+    }
+
+    private void remove(Entry entry) {
+        mSize -= entry.size;
+        entry.removed = true;
+        disposeIfUnused(entry);
+    }
+
+    private static void disposeIfUnused(Entry entry) {
+        if (entry.removed && entry.numUsers == 0) {
+            entry.image.dispose();
+        }
+    }
+
+    private static final class Entry {
+        final Image image;
+        final long size;
+        int numUsers;
+        boolean removed;
+
+        Entry(Image image, long size) {
+            this.image = image;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import android.content.Context;
+import android.net.Uri;
+
+import com.microblink.blinkid.image.Image;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.UUID;
+
+/**
+ * Plugin-managed directory in the app cache that holds result images delivered as files.
+ *
+ * The directory is trimmed after every result: the least recently written files are deleted
+ * until the directory fits into the configured size limit again.
+ */
+final class ResultImageStore {
+    static final long DEFAULT_SIZE_LIMIT = 64L << 20;
+
+    private static final String DIRECTORY_NAME = "blinkid-result-images";
+
+    private static ResultImageStore sInstance;
+
+    private final File mDirectory;
+
+    private ResultImageStore(File directory) {
+        mDirectory = directory;
+    }
+
+    static synchronized ResultImageStore getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new ResultImageStore(new File(context.getCacheDir(), DIRECTORY_NAME));
+        }
+        return sInstance;
+    }
+
+    /**
+     * Writes the image into a new file and returns it, or returns {@code null} if the image could
+     * not be written.
+     */
+    File write(Image image, ImageEncodingProfile profile) {
+        if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+            return null;
+        }
+        File imageFile = new File(mDirectory, UUID.randomUUID().toString() + profile.getFormat().getFileExtension());
+        if (SerializationUtils.writeImageFile(image, profile, imageFile)) {
+            return imageFile;
+        }
+        imageFile.delete();
+        return null;
+    }
+
+    static String toUri(File imageFile) {
+        return Uri.fromFile(imageFile).toString();
+    }
+
+    /**
+     * Deletes the least recently written files until the directory is not larger than
+     * {@code sizeLimit} bytes. Files in {@code keep} are never deleted, so images of the result that
+     * is being delivered stay readable even if they alone exceed the limit.
+     */
+    synchronized void trim(long sizeLimit, Collection<File> keep) {
+        File[] files = mDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+        final long[] lastModified = new long[files.length];
+        long totalSize = 0;
+        for (int i = 0; i < files.length; ++i) {
+            totalSize += files[i].length();
+        }
+        if (totalSize <= sizeLimit) {
+            return;
+        }
+        for (int i = 0; i < files.length; ++i) {
+            lastModified[i] = files[i].lastModified();
+        }
+        Integer[] order = new Integer[files.length];
+        for (int i = 0; i < order.length; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer first, Integer second) {
+                return Long.compare(lastModified[first], lastModified[second]);
+            }
+        });
+        for (int i = 0; i < order.length && totalSize > sizeLimit; ++i) {
+            File file = files[order[i]];
+            if (keep.contains(file)) {
+                continue;
+            }
+            long fileSize = file.length();
+            if (file.delete()) {
+                totalSize -= fileSize;
+            }
+        }
+    }
+}
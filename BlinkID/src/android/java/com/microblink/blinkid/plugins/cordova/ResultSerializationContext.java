@@ -0,0 +1,117 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import android.content.Context;
+
+import com.microblink.blinkid.image.Image;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * State shared by all recognizer serializers while a single set of results is being serialized.
+ *
+ * Images are not encoded at the moment they are put into the result. They are encoded concurrently
+ * and written into the JSON result once {@link #finish()} is called. When images are delivered as
+ * handles, they are not encoded at all and only their handles are put into the result.
+ */
+public final class ResultSerializationContext {
+    private final ImageEncodingStage mImageEncodingStage = new ImageEncodingStage();
+    private final ResultSerializationSettings mSettings;
+    private final ResultImageStore mImageStore;
+    private final Set<File> mWrittenImageFiles = Collections.synchronizedSet(new HashSet<File>());
+    private final boolean mIncludeImages;
+    private ResultFieldMask mResultFieldMask = ResultFieldMask.ALL;
+
+    public ResultSerializationContext() {
+        this(null, ResultSerializationSettings.DEFAULT);
+    }
+
+    /**
+     * @param context application context, required only if settings deliver images as files
+     */
+    public ResultSerializationContext(Context context, ResultSerializationSettings settings) {
+        this(context, settings, true);
+    }
+
+    private ResultSerializationContext(Context context, ResultSerializationSettings settings, boolean includeImages) {
+        mSettings = settings;
+        mIncludeImages = includeImages;
+        if (includeImages && settings.getImageDeliveryMode() == ResultSerializationSettings.ImageDeliveryMode.FILE) {
+            mImageStore = ResultImageStore.getInstance(context);
+        } else {
+            mImageStore = null;
+        }
+    }
+
+    /**
+     * Creates a context for partial results that are reported during a scan. Images are left out of
+     * such results, so no files or handles are created that the final result would not reference
+     * and no image is encoded twice.
+     */
+    public static ResultSerializationContext withoutImages(ResultSerializationSettings settings) {
+        return new ResultSerializationContext(null, settings, false);
+    }
+
+    /**
+     * Must be called before the result of the recognizer at the given index in the recognizer
+     * collection is serialized.
+     */
+    public void startRecognizerResult(int recognizerIndex) {
+        mResultFieldMask = mSettings.getResultFieldMask(recognizerIndex);
+    }
+
+    /**
+     * @return fields of the current recognizer result that should be serialized
+     */
+    public ResultFieldMask getResultFieldMask() {
+        return mResultFieldMask;
+    }
+
+    public boolean useSparseStringResults() {
+        return mSettings.getStringResultFormat() == ResultSerializationSettings.StringResultFormat.SPARSE;
+    }
+
+    public void putImage(JSONObject jsonObject, String key, final Image image) throws JSONException {
+        if (image == null || !mIncludeImages) {
+            return;
+        }
+        if (mSettings.getImageDeliveryMode() == ResultSerializationSettings.ImageDeliveryMode.HANDLE) {
+            jsonObject.put(key, ResultImageCache.INSTANCE.put(image));
+            return;
+        }
+        final ImageEncodingProfile profile = mSettings.getImageEncodingProfile(key);
+        if (mImageStore != null) {
+            mImageEncodingStage.put(jsonObject, key, new Callable<String>() {
+                @Override
+                public String call() {
+                    File imageFile = mImageStore.write(image, profile);
+                    if (imageFile == null) {
+                        return null;
+                    }
+                    mWrittenImageFiles.add(imageFile);
+                    return ResultImageStore.toUri(imageFile);
+                }
+            });
+        } else {
+            mImageEncodingStage.put(jsonObject, key, new Callable<String>() {
+                @Override
+                public String call() {
+                    return SerializationUtils.encodeImageBase64(image, profile);
+                }
+            });
+        }
+    }
+
+    public void finish() throws JSONException {
+        mImageEncodingStage.join();
+        if (mImageStore != null) {
+            mImageStore.trim(mSettings.getImageFileCacheSizeLimit(), mWrittenImageFiles);
+        }
+    }
+}
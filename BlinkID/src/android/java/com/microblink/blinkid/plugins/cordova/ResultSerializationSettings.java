@@ -0,0 +1,148 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Result delivery options of a recognizer collection. They are read once per scan from the
+ * recognizer collection JSON and used while its results are serialized.
+ */
+public final class ResultSerializationSettings {
+
+    public enum StringResultFormat {
+        /** All alphabets, locations and sides are serialized, even if empty. */
+        FULL,
+        /** Only the alphabet values, locations, sides and descriptions that differ from their defaults are serialized. */
+        SPARSE
+    }
+
+    public enum ImageDeliveryMode {
+        /** Images are put into the result as Base64 encoded strings. */
+        BASE64,
+        /** Images are written into the plugin's cache directory and the result contains file URIs. */
+        FILE,
+        /**
+         * Images are kept unencoded in {@link ResultImageCache} and the result contains their
+         * handles. Images are encoded only when requested with the {@code getResultImage} action.
+         */
+        HANDLE
+    }
+
+    public enum ResultFormat {
+        /** Results are delivered as JSON objects. */
+        JSON,
+        /** Results are delivered as an ArrayBuffer in the format written by {@link BinaryResultEncoder}. */
+        BINARY
+    }
+
+    public static final ResultSerializationSettings DEFAULT = new ResultSerializationSettings(
+            ResultFormat.JSON,
+            StringResultFormat.FULL,
+            ImageDeliveryMode.BASE64,
+            ResultImageStore.DEFAULT_SIZE_LIMIT,
+            ResultImageCache.DEFAULT_SIZE_LIMIT,
+            ImageEncodingProfile.DEFAULT,
+            Collections.<String, ImageEncodingProfile>emptyMap(),
+            new ResultFieldMask[0]
+    );
+
+    private final ResultFormat mResultFormat;
+    private final StringResultFormat mStringResultFormat;
+    private final ImageDeliveryMode mImageDeliveryMode;
+    private final long mImageFileCacheSizeLimit;
+    private final long mImageHandleCacheSizeLimit;
+    private final ImageEncodingProfile mDefaultImageEncodingProfile;
+    private final Map<String, ImageEncodingProfile> mImageEncodingProfiles;
+    private final ResultFieldMask[] mResultFieldMasks;
+
+    private ResultSerializationSettings(ResultFormat resultFormat, StringResultFormat stringResultFormat, ImageDeliveryMode imageDeliveryMode, long imageFileCacheSizeLimit, long imageHandleCacheSizeLimit,
+                                        ImageEncodingProfile defaultImageEncodingProfile, Map<String, ImageEncodingProfile> imageEncodingProfiles,
+                                        ResultFieldMask[] resultFieldMasks) {
+        mResultFormat = resultFormat;
+        mStringResultFormat = stringResultFormat;
+        mImageDeliveryMode = imageDeliveryMode;
+        mImageFileCacheSizeLimit = imageFileCacheSizeLimit;
+        mImageHandleCacheSizeLimit = imageHandleCacheSizeLimit;
+        mDefaultImageEncodingProfile = defaultImageEncodingProfile;
+        mImageEncodingProfiles = imageEncodingProfiles;
+        mResultFieldMasks = resultFieldMasks;
+    }
+
+    public static ResultSerializationSettings deserialize(JSONObject jsonRecognizerCollection) {
+        if (jsonRecognizerCollection == null) {
+            return DEFAULT;
+        }
+        ResultFormat resultFormat = EnumRegistry.INSTANCE.fromOrdinal(ResultFormat.class, jsonRecognizerCollection.optInt("resultFormat", ResultFormat.JSON.ordinal()));
+        StringResultFormat stringResultFormat = EnumRegistry.INSTANCE.fromOrdinal(StringResultFormat.class, jsonRecognizerCollection.optInt("stringResultFormat", StringResultFormat.FULL.ordinal()));
+        ImageDeliveryMode imageDeliveryMode = EnumRegistry.INSTANCE.fromOrdinal(ImageDeliveryMode.class, jsonRecognizerCollection.optInt("imageDeliveryMode", ImageDeliveryMode.BASE64.ordinal()));
+        long imageFileCacheSizeLimit = jsonRecognizerCollection.optLong("imageFileCacheSizeLimit", ResultImageStore.DEFAULT_SIZE_LIMIT);
+        long imageHandleCacheSizeLimit = jsonRecognizerCollection.optLong("imageHandleCacheSizeLimit", ResultImageCache.DEFAULT_SIZE_LIMIT);
+        ImageEncodingProfile defaultImageEncodingProfile = ImageEncodingProfile.deserialize(
+                jsonRecognizerCollection.optJSONObject("defaultImageEncodingProfile"), ImageEncodingProfile.DEFAULT);
+
+        Map<String, ImageEncodingProfile> imageEncodingProfiles = new HashMap<>();
+        JSONObject jsonImageEncodingProfiles = jsonRecognizerCollection.optJSONObject("imageEncodingProfiles");
+        if (jsonImageEncodingProfiles != null) {
+            Iterator<String> imageKeys = jsonImageEncodingProfiles.keys();
+            while (imageKeys.hasNext()) {
+                String imageKey = imageKeys.next();
+                imageEncodingProfiles.put(imageKey, ImageEncodingProfile.deserialize(
+                        jsonImageEncodingProfiles.optJSONObject(imageKey), defaultImageEncodingProfile));
+            }
+        }
+
+        // field masks are compiled once per scan, indexed the same way as the recognizers
+        JSONArray jsonRecognizerArray = jsonRecognizerCollection.optJSONArray("recognizerArray");
+        int numRecognizers = jsonRecognizerArray != null ? jsonRecognizerArray.length() : 0;
+        ResultFieldMask[] resultFieldMasks = new ResultFieldMask[numRecognizers];
+        for (int i = 0; i < numRecognizers; ++i) {
+            JSONObject jsonRecognizer = jsonRecognizerArray.optJSONObject(i);
+            resultFieldMasks[i] = ResultFieldMask.deserialize(jsonRecognizer != null ? jsonRecognizer.optJSONArray("resultFieldMask") : null);
+        }
+        return new ResultSerializationSettings(resultFormat, stringResultFormat, imageDeliveryMode, imageFileCacheSizeLimit, imageHandleCacheSizeLimit,
+                defaultImageEncodingProfile, Collections.unmodifiableMap(imageEncodingProfiles), resultFieldMasks);
+    }
+
+    public ResultFormat getResultFormat() {
+        return mResultFormat;
+    }
+
+    public StringResultFormat getStringResultFormat() {
+        return mStringResultFormat;
+    }
+
+    public ImageDeliveryMode getImageDeliveryMode() {
+        return mImageDeliveryMode;
+    }
+
+    public long getImageFileCacheSizeLimit() {
+        return mImageFileCacheSizeLimit;
+    }
+
+    public long getImageHandleCacheSizeLimit() {
+        return mImageHandleCacheSizeLimit;
+    }
+
+    /**
+     * @param imageKey name of the image in the serialized result, e.g. {@code faceImage}
+     */
+    public ImageEncodingProfile getImageEncodingProfile(String imageKey) {
+        ImageEncodingProfile profile = mImageEncodingProfiles.get(imageKey);
+        return profile != null ? profile : mDefaultImageEncodingProfile;
+    }
+
+    /**
+     * @param recognizerIndex index of the recognizer in the recognizer collection
+     */
+    public ResultFieldMask getResultFieldMask(int recognizerIndex) {
+        if (recognizerIndex < 0 || recognizerIndex >= mResultFieldMasks.length) {
+            return ResultFieldMask.ALL;
+        }
+        return mResultFieldMasks[recognizerIndex];
+    }
+}
@@ -0,0 +1,127 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import com.microblink.blinkid.directApi.RecognizerRunner;
+import com.microblink.blinkid.entities.recognizers.RecognizerBundle;
+
+import org.apache.cordova.CallbackContext;
+
+/**
+ * State of a single scanning call from JavaScript. Every call gets its own request, so calls that
+ * are queued behind each other never share callbacks, recognizers or settings.
+ */
+final class ScanRequest {
+    private final int mId;
+    private final CallbackContext mCallbackContext;
+
+    private RecognizerBundle mRecognizerBundle;
+    private RecognizerRunner mRecognizerRunner;
+    private volatile boolean mHoldsWarmRecognizerRunner;
+    private ResultSerializationSettings mResultSerializationSettings = ResultSerializationSettings.DEFAULT;
+    private ImageDecodingProfile mImageDecodingProfile = ImageDecodingProfile.DEFAULT;
+    private RecognitionRetryStrategy mRecognitionRetryStrategy = RecognitionRetryStrategy.DEFAULT;
+    private volatile boolean mFirstSideScanned;
+    private boolean mProgressEventsEnabled;
+    private boolean mFinished;
+
+    ScanRequest(int id, CallbackContext callbackContext) {
+        mId = id;
+        mCallbackContext = callbackContext;
+    }
+
+    int getId() {
+        return mId;
+    }
+
+    CallbackContext getCallbackContext() {
+        return mCallbackContext;
+    }
+
+    RecognizerBundle getRecognizerBundle() {
+        return mRecognizerBundle;
+    }
+
+    void setRecognizerBundle(RecognizerBundle recognizerBundle) {
+        mRecognizerBundle = recognizerBundle;
+    }
+
+    /**
+     * @return the DirectAPI runner used by this request, or {@code null} for camera scanning
+     */
+    RecognizerRunner getRecognizerRunner() {
+        return mRecognizerRunner;
+    }
+
+    void setRecognizerRunner(RecognizerRunner recognizerRunner) {
+        mRecognizerRunner = recognizerRunner;
+    }
+
+    /**
+     * @return true if the request acquired the warm DirectAPI runner and must release it when it
+     *         is finished, even if the acquisition failed
+     */
+    boolean holdsWarmRecognizerRunner() {
+        return mHoldsWarmRecognizerRunner;
+    }
+
+    void setHoldsWarmRecognizerRunner(boolean holdsWarmRecognizerRunner) {
+        mHoldsWarmRecognizerRunner = holdsWarmRecognizerRunner;
+    }
+
+    ResultSerializationSettings getResultSerializationSettings() {
+        return mResultSerializationSettings;
+    }
+
+    void setResultSerializationSettings(ResultSerializationSettings resultSerializationSettings) {
+        mResultSerializationSettings = resultSerializationSettings;
+    }
+
+    ImageDecodingProfile getImageDecodingProfile() {
+        return mImageDecodingProfile;
+    }
+
+    void setImageDecodingProfile(ImageDecodingProfile imageDecodingProfile) {
+        mImageDecodingProfile = imageDecodingProfile;
+    }
+
+    RecognitionRetryStrategy getRecognitionRetryStrategy() {
+        return mRecognitionRetryStrategy;
+    }
+
+    void setRecognitionRetryStrategy(RecognitionRetryStrategy recognitionRetryStrategy) {
+        mRecognitionRetryStrategy = recognitionRetryStrategy;
+    }
+
+    boolean isFirstSideScanned() {
+        return mFirstSideScanned;
+    }
+
+    void setFirstSideScanned(boolean firstSideScanned) {
+        mFirstSideScanned = firstSideScanned;
+    }
+
+    boolean isProgressEventsEnabled() {
+        return mProgressEventsEnabled;
+    }
+
+    void setProgressEventsEnabled(boolean progressEventsEnabled) {
+        mProgressEventsEnabled = progressEventsEnabled;
+    }
+
+    /**
+     * Marks the request as finished. Its final result must be sent only if this returns true.
+     *
+     * @return false if the request was already finished, e.g. because the runner reported an error
+     *         after the request failed for another reason
+     */
+    synchronized boolean finish() {
+        if (mFinished) {
+            return false;
+        }
+        mFinished = true;
+        return true;
+    }
+
+    synchronized boolean isFinished() {
+        return mFinished;
+    }
+}
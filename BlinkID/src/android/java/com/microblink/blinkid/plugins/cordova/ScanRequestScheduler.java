@@ -0,0 +1,210 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import org.apache.cordova.CallbackContext;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs scanning requests one after another on a dedicated plugin thread. The recognizers are native
+ * singletons, so only one request may use them at a time; requests submitted meanwhile are queued
+ * and the next one is started as soon as the active request finishes, without waiting for
+ * JavaScript.
+ *
+ * Tasks never run on the calling thread, so the WebView thread only enqueues the request. The
+ * number of queued requests is bounded by {@link #MAX_PENDING_REQUESTS}.
+ *
+ * A task or step that throws fails its request through the {@link FailureHandler}, so one bad call
+ * can not keep the following requests waiting forever.
+ */
+final class ScanRequestScheduler implements Executor {
+
+    interface Task {
+        void run(ScanRequest request);
+    }
+
+    interface FailureHandler {
+        /**
+         * Called on the plugin thread when a task or step of the active request throws. The request
+         * is finished afterwards in any case.
+         */
+        void onRequestFailed(ScanRequest request, RuntimeException exception);
+    }
+
+    static final int MAX_PENDING_REQUESTS = 16;
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final AtomicInteger mNextRequestId = new AtomicInteger(1);
+    private final ThreadPoolExecutor mExecutor = createExecutor();
+
+    private final FailureHandler mFailureHandler;
+
+    private final ArrayDeque<PendingTask> mPendingTasks = new ArrayDeque<>();
+    private ScanRequest mActiveRequest;
+
+    // metrics, guarded by this
+    private int mMaxPendingRequests;
+    private long mNumStartedRequests;
+    private long mTotalWaitNanos;
+    private long mMaxWaitNanos;
+
+    ScanRequestScheduler(FailureHandler failureHandler) {
+        mFailureHandler = failureHandler;
+    }
+
+    /**
+     * Creates a request for the call and schedules the task. The task runs once all previously
+     * submitted requests are finished and must eventually call {@link #finish(ScanRequest)}.
+     *
+     * @return the created request, or {@code null} if too many requests are already queued
+     */
+    ScanRequest submit(CallbackContext callbackContext, Task task) {
+        ScanRequest request = new ScanRequest(mNextRequestId.getAndIncrement(), callbackContext);
+        PendingTask pendingTask = new PendingTask(request, task, System.nanoTime());
+        synchronized (this) {
+            if (mActiveRequest == null) {
+                mActiveRequest = request;
+            } else if (mPendingTasks.size() < MAX_PENDING_REQUESTS) {
+                mPendingTasks.addLast(pendingTask);
+                mMaxPendingRequests = Math.max(mMaxPendingRequests, mPendingTasks.size());
+                return request;
+            } else {
+                return null;
+            }
+        }
+        mExecutor.execute(pendingTask);
+        return request;
+    }
+
+    /**
+     * Starts the next queued request once the given request is done. Calling it again for the same
+     * request has no effect.
+     */
+    void finish(ScanRequest request) {
+        PendingTask next;
+        synchronized (this) {
+            if (mActiveRequest != request) {
+                return;
+            }
+            next = mPendingTasks.pollFirst();
+            mActiveRequest = next != null ? next.request : null;
+        }
+        if (next != null) {
+            mExecutor.execute(next);
+        }
+    }
+
+    /**
+     * Runs a step of the active request, or plugin work that must not race with requests, on the
+     * plugin thread. Recognizer callbacks use it to continue a request, so the step neither runs
+     * on the callback thread nor nests in its stack.
+     */
+    @Override
+    public void execute(Runnable step) {
+        mExecutor.execute(step);
+    }
+
+    /**
+     * @return executor that runs steps of the request on the plugin thread like
+     *         {@link #execute(Runnable)} and fails the request if a step throws
+     */
+    Executor stepsOf(final ScanRequest request) {
+        return new Executor() {
+            @Override
+            public void execute(final Runnable step) {
+                mExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            step.run();
+                        } catch (RuntimeException e) {
+                            fail(request, e);
+                        }
+                    }
+                });
+            }
+        };
+    }
+
+    private void fail(ScanRequest request, RuntimeException exception) {
+        synchronized (this) {
+            if (mActiveRequest != request) {
+                // the request is already finished, nothing waits for it
+                throw exception;
+            }
+        }
+        mFailureHandler.onRequestFailed(request, exception);
+        finish(request);
+    }
+
+    /**
+     * Describes the current queue depth and the time requests waited before they were started.
+     */
+    synchronized JSONObject serializeMetrics() throws JSONException {
+        JSONObject jsonMetrics = new JSONObject();
+        jsonMetrics.put("activeRequest", mActiveRequest != null);
+        jsonMetrics.put("pendingRequests", mPendingTasks.size());
+        jsonMetrics.put("maxPendingRequests", mMaxPendingRequests);
+        jsonMetrics.put("startedRequests", mNumStartedRequests);
+        jsonMetrics.put("averageWaitMillis", mNumStartedRequests > 0 ? TimeUnit.NANOSECONDS.toMillis(mTotalWaitNanos / mNumStartedRequests) : 0);
+        jsonMetrics.put("maxWaitMillis", TimeUnit.NANOSECONDS.toMillis(mMaxWaitNanos));
+        return jsonMetrics;
+    }
+
+    private synchronized void recordStart(long submitTimeNanos) {
+        long waitNanos = System.nanoTime() - submitTimeNanos;
+        ++mNumStartedRequests;
+        mTotalWaitNanos += waitNanos;
+        mMaxWaitNanos = Math.max(mMaxWaitNanos, waitNanos);
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        // at most one task is scheduled at a time, the rest of the requests wait in mPendingTasks
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1,
+                1,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(MAX_PENDING_REQUESTS),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "BlinkIdScanner");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private final class PendingTask implements Runnable {
+        final ScanRequest request;
+        final Task task;
+        final long submitTimeNanos;
+
+        PendingTask(ScanRequest request, Task task, long submitTimeNanos) {
+            this.request = request;
+            this.task = task;
+            this.submitTimeNanos = submitTimeNanos;
+        }
+
+        @Override
+        public void run() {
+            recordStart(submitTimeNanos);
+            try {
+                task.run(request);
+            } catch (RuntimeException e) {
+                fail(request, e);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.microblink.blinkid.plugins.cordova;
 
 import android.graphics.Bitmap;
 import android.util.Base64;
+import android.util.Base64OutputStream;
 
 import com.microblink.blinkid.entities.recognizers.Recognizer;
 import com.microblink.blinkid.geometry.Point;
@@ -17,14 +18,15 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 import androidx.annotation.Nullable;
 
 public abstract class SerializationUtils {
-    private static final int COMPRESSED_IMAGE_QUALITY = 90;
-
     public static <T extends Recognizer.Result> void addCommonRecognizerResultData(JSONObject jsonObject, T result) throws JSONException {
         jsonObject.put("resultState", serializeEnum(result.getResultState()));
     }
@@ -61,24 +63,91 @@ public abstract class SerializationUtils {
         return jsonStrings;
     }
 
+    /**
+     * Compresses the image to JPEG and encodes it to Base64.
+     */
     public static String encodeImageBase64(Image image) {
-        if (image == null) {
+        return encodeImageBase64(image, ImageEncodingProfile.DEFAULT);
+    }
+
+    /**
+     * Compresses the image as described by the profile and encodes it to Base64.
+     *
+     * The compressor output is streamed through the Base64 encoder directly into a pooled buffer,
+     * so the only full-size allocation is the resulting string.
+     */
+    public static String encodeImageBase64(Image image, ImageEncodingProfile profile) {
+        Bitmap resultImgBmp = convertToBitmap(image, profile);
+        if (resultImgBmp == null) {
             return null;
         }
-        Bitmap resultImgBmp = image.convertToBitmap();
-        if (resultImgBmp == null) {
+        PooledByteArrayOutputStream base64Stream = new PooledByteArrayOutputStream(estimateBase64Size(resultImgBmp, profile));
+        try {
+            Base64OutputStream encoderStream = new Base64OutputStream(base64Stream, Base64.NO_WRAP | Base64.NO_CLOSE);
+            boolean success = resultImgBmp.compress(profile.getCompressFormat(), profile.getQuality(), encoderStream);
+            // closing the encoder flushes the final Base64 quantum, the pooled stream stays open
+            encoderStream.close();
+            return success ? base64Stream.toAsciiString() : null;
+        } catch (IOException e) {
             return null;
+        } finally {
+            base64Stream.release();
+            BitmapManager.INSTANCE.release(resultImgBmp);
         }
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        boolean success = resultImgBmp.compress(Bitmap.CompressFormat.JPEG, COMPRESSED_IMAGE_QUALITY, byteArrayOutputStream);
-        String resultImgBase64 = null;
-        if (success) {
-            resultImgBase64 = Base64.encodeToString(byteArrayOutputStream.toByteArray(), Base64.NO_WRAP);
+    }
+
+    /**
+     * Compresses the image as described by the profile and writes it into the given file.
+     */
+    public static boolean writeImageFile(Image image, ImageEncodingProfile profile, File file) {
+        Bitmap resultImgBmp = convertToBitmap(image, profile);
+        if (resultImgBmp == null) {
+            return false;
         }
+        OutputStream fileStream = null;
         try {
-            byteArrayOutputStream.close();
-        } catch (IOException ignorable) {}
-        return resultImgBase64;
+            fileStream = new BufferedOutputStream(new FileOutputStream(file));
+            boolean success = resultImgBmp.compress(profile.getCompressFormat(), profile.getQuality(), fileStream);
+            fileStream.close();
+            fileStream = null;
+            return success;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            if (fileStream != null) {
+                try {
+                    fileStream.close();
+                } catch (IOException ignorable) {}
+            }
+            BitmapManager.INSTANCE.release(resultImgBmp);
+        }
+    }
+
+    /**
+     * Converts the image to a bitmap scaled as described by the profile. The returned bitmap is
+     * owned by {@link BitmapManager} and must be released once it is compressed.
+     */
+    private static Bitmap convertToBitmap(Image image, ImageEncodingProfile profile) {
+        if (image == null) {
+            return null;
+        }
+        Bitmap bitmap = BitmapManager.INSTANCE.track(image.convertToBitmap());
+        if (bitmap == null) {
+            return null;
+        }
+        Bitmap scaled = profile.scale(bitmap);
+        if (scaled != bitmap) {
+            BitmapManager.INSTANCE.release(bitmap);
+        }
+        return scaled;
+    }
+
+    private static int estimateBase64Size(Bitmap bitmap, ImageEncodingProfile profile) {
+        long numPixels = (long) bitmap.getWidth() * bitmap.getHeight();
+        // lossy document images take roughly half a byte per pixel, PNG about two bytes per pixel;
+        // Base64 adds a third on top of that
+        long estimate = profile.getFormat() == ImageEncodingProfile.Format.PNG ? numPixels * 8 / 3 : numPixels * 2 / 3;
+        return (int) Math.min(estimate, Integer.MAX_VALUE >> 2);
     }
 
     public static String encodeByteArrayToBase64(byte[] arr) {
@@ -0,0 +1,286 @@
+package com.microblink.blinkid.plugins.cordova;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+
+import com.microblink.blinkid.directApi.DirectApiErrorListener;
+import com.microblink.blinkid.directApi.RecognizerRunner;
+import com.microblink.blinkid.entities.recognizers.RecognizerBundle;
+import com.microblink.blinkid.metadata.MetadataCallbacks;
+import com.microblink.blinkid.plugins.cordova.overlays.OverlaySettingsSerializers;
+import com.microblink.blinkid.plugins.cordova.recognizers.RecognizerSerializers;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+
+/**
+ * Keeps the DirectAPI {@link RecognizerRunner} initialized between scans that use the same
+ * recognizer collection.
+ *
+ * Recognizer collections are compared by a fingerprint of their canonical JSON, so key order and
+ * results left in the JavaScript recognizer objects do not matter. While the fingerprint is
+ * unchanged, only the recognition state is reset between scans. The runner is terminated when the
+ * recognizer collection changes, when the system reports memory pressure and when the camera is
+ * used for scanning.
+ *
+ * The runner is initialized and terminated on the plugin thread only, and never while the monitor
+ * is held. Memory pressure callbacks arrive on the main thread, they only request the eviction
+ * and the runner is terminated on the plugin thread once it is not used anymore.
+ */
+final class WarmRecognizerRunner implements ComponentCallbacks2 {
+    private final Context mContext;
+    private final Executor mPluginThread;
+
+    // guarded by this
+    private RecognizerRunner mRecognizerRunner;
+    private RecognizerBundle mRecognizerBundle;
+    private String mFingerprint;
+    private boolean mInUse;
+
+    private volatile boolean mEvictionRequested;
+
+    // accessed on the main thread only
+    private Locale mLocale;
+
+    private final Runnable mTerminateIfEvicted = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (WarmRecognizerRunner.this) {
+                if (mInUse) {
+                    // terminated once released
+                    return;
+                }
+            }
+            if (mEvictionRequested) {
+                mEvictionRequested = false;
+                terminate();
+            }
+        }
+    };
+
+    /**
+     * @param pluginThread executor of the plugin thread that acquires the runner
+     */
+    WarmRecognizerRunner(Context context, Executor pluginThread) {
+        mContext = context.getApplicationContext();
+        mPluginThread = pluginThread;
+        mLocale = OverlaySettingsSerializers.getLocale(mContext.getResources().getConfiguration());
+    }
+
+    /**
+     * Prepares the runner for a scan with the given recognizer collection and marks it as used
+     * until {@link #release()} is called. Must be called on the plugin thread.
+     *
+     * @throws IllegalStateException if DirectAPI is not supported on this device
+     * @throws IllegalArgumentException if the recognizer collection contains an invalid enum value
+     */
+    void acquire(JSONObject jsonRecognizerCollection, MetadataCallbacks metadataCallbacks, final DirectApiErrorListener errorListener) {
+        String fingerprint = fingerprint(jsonRecognizerCollection);
+        RecognizerRunner warmRecognizerRunner;
+        synchronized (this) {
+            mInUse = true;
+            mEvictionRequested = false;
+            warmRecognizerRunner = fingerprint.equals(mFingerprint) ? mRecognizerRunner : null;
+        }
+        if (warmRecognizerRunner != null) {
+            warmRecognizerRunner.setMetadataCallbacks(metadataCallbacks);
+            warmRecognizerRunner.resetRecognitionState(true);
+            return;
+        }
+
+        // an invalid collection is rejected before the current runner is given up
+        RecognizerBundle recognizerBundle = RecognizerSerializers.INSTANCE.deserializeRecognizerCollection(jsonRecognizerCollection, fingerprint);
+        terminate();
+        RecognizerRunner recognizerRunner;
+        try {
+            recognizerRunner = RecognizerRunner.getSingletonInstance();
+        } catch (Exception e) {
+            synchronized (this) {
+                mInUse = false;
+            }
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        synchronized (this) {
+            mRecognizerRunner = recognizerRunner;
+            mRecognizerBundle = recognizerBundle;
+            mFingerprint = fingerprint;
+        }
+        recognizerRunner.setMetadataCallbacks(metadataCallbacks);
+        // loads the models, the monitor is not held so memory pressure callbacks do not wait for it
+        recognizerRunner.initialize(mContext, recognizerBundle, new DirectApiErrorListener() {
+            @Override
+            public void onRecognizerError(Throwable throwable) {
+                // a runner that failed to initialize must not be reused
+                invalidate();
+                errorListener.onRecognizerError(throwable);
+            }
+        });
+    }
+
+    synchronized RecognizerRunner getRecognizerRunner() {
+        return mRecognizerRunner;
+    }
+
+    synchronized RecognizerBundle getRecognizerBundle() {
+        return mRecognizerBundle;
+    }
+
+    /**
+     * Marks the runner as unused. It stays initialized unless it was evicted while in use, in that
+     * case it is terminated on the plugin thread.
+     */
+    void release() {
+        synchronized (this) {
+            mInUse = false;
+        }
+        if (mEvictionRequested) {
+            mPluginThread.execute(mTerminateIfEvicted);
+        }
+    }
+
+    /**
+     * Terminates the runner right away, or as soon as it is not used anymore. Must be called on the
+     * plugin thread.
+     */
+    void evict() {
+        mEvictionRequested = true;
+        mTerminateIfEvicted.run();
+    }
+
+    /**
+     * Terminates the runner on the plugin thread once it is not used anymore. Does not wait, so it
+     * may be called on the main thread.
+     */
+    void requestEviction() {
+        mEvictionRequested = true;
+        mPluginThread.execute(mTerminateIfEvicted);
+    }
+
+    private synchronized void invalidate() {
+        mFingerprint = null;
+    }
+
+    private void terminate() {
+        RecognizerRunner recognizerRunner;
+        synchronized (this) {
+            recognizerRunner = mRecognizerRunner;
+            mRecognizerRunner = null;
+            mRecognizerBundle = null;
+            mFingerprint = null;
+        }
+        if (recognizerRunner != null) {
+            recognizerRunner.terminate();
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        // UI_HIDDEN only tells that the app went to background, it is not memory pressure
+        if (level >= TRIM_MEMORY_RUNNING_LOW && level != TRIM_MEMORY_UI_HIDDEN) {
+            onMemoryPressure();
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        onMemoryPressure();
+    }
+
+    private void onMemoryPressure() {
+        requestEviction();
+        // the prototype recognizers of the cached templates hold native memory as well
+        RecognizerSerializers.INSTANCE.clearCompiledRecognizerCollections();
+        OverlaySettingsSerializers.INSTANCE.clearCompiledOverlaySettings();
+        // unencoded result images are the largest native allocations the plugin keeps between scans
+        ResultImageCache.INSTANCE.releaseAll();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        Locale locale = OverlaySettingsSerializers.getLocale(newConfig);
+        if (!locale.equals(mLocale)) {
+            mLocale = locale;
+            // the strings of the cached overlay settings were resolved in the previous locale
+            OverlaySettingsSerializers.INSTANCE.clearCompiledOverlaySettings();
+        }
+    }
+
+    /**
+     * @return fingerprint of the canonical JSON of a recognizer collection or of overlay settings
+     */
+    static String fingerprint(JSONObject jsonObject) {
+        StringBuilder canonicalJson = new StringBuilder();
+        try {
+            appendCanonical(canonicalJson, jsonObject);
+        } catch (JSONException e) {
+            // see https://developer.android.com/reference/org/json/JSONException
+            throw new RuntimeException(e);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonicalJson.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder fingerprint = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                fingerprint.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return fingerprint.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is available on all Android versions
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void appendCanonical(StringBuilder out, Object value) throws JSONException {
+        if (value instanceof JSONObject) {
+            JSONObject jsonObject = (JSONObject) value;
+            // results of the previous scan are sent back with the JavaScript recognizer objects, a
+            // settings object with a result key is still part of the fingerprint
+            boolean recognizer = jsonObject.has("recognizerType");
+            List<String> keys = new ArrayList<>(jsonObject.length());
+            Iterator<String> keyIterator = jsonObject.keys();
+            while (keyIterator.hasNext()) {
+                String key = keyIterator.next();
+                if (!(recognizer && key.equals("result"))) {
+                    keys.add(key);
+                }
+            }
+            Collections.sort(keys);
+            out.append('{');
+            for (int i = 0; i < keys.size(); ++i) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(JSONObject.quote(keys.get(i))).append(':');
+                appendCanonical(out, jsonObject.opt(keys.get(i)));
+            }
+            out.append('}');
+        } else if (value instanceof JSONArray) {
+            JSONArray jsonArray = (JSONArray) value;
+            out.append('[');
+            for (int i = 0; i < jsonArray.length(); ++i) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendCanonical(out, jsonArray.opt(i));
+            }
+            out.append(']');
+        } else if (value instanceof Number) {
+            out.append(JSONObject.numberToString((Number) value));
+        } else if (value instanceof String) {
+            out.append(JSONObject.quote((String) value));
+        } else {
+            out.append(String.valueOf(value));
+        }
+    }
+}
\ No newline at end of file
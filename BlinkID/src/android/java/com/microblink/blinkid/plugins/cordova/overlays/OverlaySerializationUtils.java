@@ -13,18 +13,47 @@ import org.json.JSONObject;
 public class OverlaySerializationUtils {
 
     public static void prepareCommonUiSettings(Context context, JSONObject jsonUISettings, UISettings uiSettings) {
+        deserializeCommonUiSettings(context, jsonUISettings).applyTo(uiSettings);
+    }
+
+    public static CommonUiSettings deserializeCommonUiSettings(Context context, JSONObject jsonUISettings) {
+        CameraSettings cameraSettings = null;
         boolean useFrontCamera = jsonUISettings.optBoolean("useFrontCamera", false);
         if (useFrontCamera) {
-            CameraSettings cameraSettings = new CameraSettings.Builder()
+            cameraSettings = new CameraSettings.Builder()
                     .setType(CameraType.CAMERA_FRONTFACE).build();
-            uiSettings.setCameraSettings(cameraSettings);
         }
 
-        if (uiSettings instanceof BeepSoundUIOptions) {
-            boolean enableBeep = jsonUISettings.optBoolean("enableBeep", false);
-            if (enableBeep) {
-                FakeR fakeR = new FakeR(context);
-                ((BeepSoundUIOptions) uiSettings).setBeepSoundResourceID(fakeR.getId("raw", "beep"));
+        int beepSoundResourceID = 0;
+        boolean enableBeep = jsonUISettings.optBoolean("enableBeep", false);
+        if (enableBeep) {
+            FakeR fakeR = new FakeR(context);
+            beepSoundResourceID = fakeR.getId("raw", "beep");
+        }
+        return new CommonUiSettings(cameraSettings, beepSoundResourceID);
+    }
+
+    /**
+     * Settings shared by all overlays, deserialized once so they can be applied to the UI settings
+     * of every scan.
+     */
+    public static final class CommonUiSettings {
+        // null to keep the default camera
+        private final CameraSettings mCameraSettings;
+        // 0 without the beep
+        private final int mBeepSoundResourceID;
+
+        CommonUiSettings(CameraSettings cameraSettings, int beepSoundResourceID) {
+            mCameraSettings = cameraSettings;
+            mBeepSoundResourceID = beepSoundResourceID;
+        }
+
+        public void applyTo(UISettings uiSettings) {
+            if (mCameraSettings != null) {
+                uiSettings.setCameraSettings(mCameraSettings);
+            }
+            if (mBeepSoundResourceID != 0 && uiSettings instanceof BeepSoundUIOptions) {
+                ((BeepSoundUIOptions) uiSettings).setBeepSoundResourceID(mBeepSoundResourceID);
             }
         }
     }
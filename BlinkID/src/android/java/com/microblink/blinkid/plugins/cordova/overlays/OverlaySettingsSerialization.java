@@ -11,5 +11,11 @@ public interface OverlaySettingsSerialization {
 
     UISettings createUISettings(Context context, JSONObject jsonUISettings, RecognizerBundle recognizerBundle);
 
+    /**
+     * Deserializes the overlay settings and resolves their strings without binding them to a
+     * recognizer bundle.
+     */
+    OverlaySettingsTemplate compileOverlaySettings(Context context, JSONObject jsonUISettings);
+
     String getJsonName();
 }
\ No newline at end of file
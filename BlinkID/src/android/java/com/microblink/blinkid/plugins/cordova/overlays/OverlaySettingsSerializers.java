@@ -1,6 +1,8 @@
 package com.microblink.blinkid.plugins.cordova.overlays;
 
 import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Build;
 
 import com.microblink.blinkid.entities.recognizers.RecognizerBundle;
 import com.microblink.blinkid.uisettings.UISettings;
@@ -10,12 +12,26 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 
 public enum OverlaySettingsSerializers {
     INSTANCE;
 
     private HashMap<String, OverlaySettingsSerialization> mByJSONName = new HashMap<>();
 
+    private static final int MAX_CACHED_TEMPLATES = 4;
+
+    // compiled templates keyed by the fingerprint of the overlay settings and the locale their
+    // strings were resolved in, least recently used first
+    private final LinkedHashMap<String, OverlaySettingsTemplate> mTemplates = new LinkedHashMap<String, OverlaySettingsTemplate>(MAX_CACHED_TEMPLATES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, OverlaySettingsTemplate> eldest) {
+            return size() > MAX_CACHED_TEMPLATES;
+        }
+    };
+
     private void registerMapping(OverlaySettingsSerialization overlaySettingsSerialization) {
         mByJSONName.put(overlaySettingsSerialization.getJsonName(), overlaySettingsSerialization);
     }
@@ -27,11 +43,55 @@ public enum OverlaySettingsSerializers {
     }
 
     public UISettings getOverlaySettings(Context context, JSONObject jsonOverlaySettings, RecognizerBundle recognizerBundle) {
+        return compileOverlaySettings(context, jsonOverlaySettings).createUISettings(context, recognizerBundle);
+    }
+
+    /**
+     * Binds the cached template of the overlay settings to the recognizer bundle. The overlay
+     * settings are compiled only if no template with the same fingerprint was compiled in the
+     * current locale.
+     *
+     * @param fingerprint fingerprint of the overlay settings content
+     */
+    public UISettings getOverlaySettings(Context context, JSONObject jsonOverlaySettings, String fingerprint, RecognizerBundle recognizerBundle) {
+        // strings that are not set in the overlay settings are resolved from the resources
+        String key = fingerprint + ':' + getLocale(context.getResources().getConfiguration());
+        OverlaySettingsTemplate template;
+        synchronized (mTemplates) {
+            template = mTemplates.get(key);
+        }
+        if (template == null) {
+            template = compileOverlaySettings(context, jsonOverlaySettings);
+            synchronized (mTemplates) {
+                mTemplates.put(key, template);
+            }
+        }
+        return template.createUISettings(context, recognizerBundle);
+    }
+
+    public OverlaySettingsTemplate compileOverlaySettings(Context context, JSONObject jsonOverlaySettings) {
         try {
-            return mByJSONName.get(jsonOverlaySettings.getString("overlaySettingsType")).createUISettings(context, jsonOverlaySettings, recognizerBundle);
+            return mByJSONName.get(jsonOverlaySettings.getString("overlaySettingsType")).compileOverlaySettings(context, jsonOverlaySettings);
         } catch (JSONException e) {
             throw new RuntimeException(e);
         }
     }
 
+    @SuppressWarnings("deprecation")
+    public static Locale getLocale(Configuration configuration) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+            return configuration.getLocales().get(0);
+        }
+        return configuration.locale;
+    }
+
+    /**
+     * Drops all cached templates, e.g. when the locale changes so their strings are resolved again.
+     */
+    public void clearCompiledOverlaySettings() {
+        synchronized (mTemplates) {
+            mTemplates.clear();
+        }
+    }
+
 }
\ No newline at end of file
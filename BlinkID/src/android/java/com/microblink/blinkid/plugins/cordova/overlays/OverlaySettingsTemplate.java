@@ -0,0 +1,18 @@
+package com.microblink.blinkid.plugins.cordova.overlays;
+
+import android.content.Context;
+
+import com.microblink.blinkid.entities.recognizers.RecognizerBundle;
+import com.microblink.blinkid.uisettings.UISettings;
+
+/**
+ * Overlay settings that were deserialized once, together with the overlay strings resolved from
+ * them. UI settings are bound to a recognizer bundle when they are constructed, so the template
+ * keeps everything that does not depend on the bundle and creates new UI settings for every scan.
+ *
+ * Templates must not keep the context they were compiled with.
+ */
+public interface OverlaySettingsTemplate {
+
+    UISettings createUISettings(Context context, RecognizerBundle recognizerBundle);
+}
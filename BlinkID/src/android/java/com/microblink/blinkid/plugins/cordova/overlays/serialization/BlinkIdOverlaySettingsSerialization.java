@@ -9,6 +9,8 @@ import com.microblink.blinkid.uisettings.UISettings;
 import com.microblink.blinkid.plugins.cordova.overlays.OverlaySettingsSerialization;
 import com.microblink.blinkid.plugins.cordova.SerializationUtils;
 import com.microblink.blinkid.plugins.cordova.overlays.OverlaySerializationUtils;
+import com.microblink.blinkid.plugins.cordova.overlays.OverlaySettingsTemplate;
+import com.microblink.blinkid.plugins.cordova.EnumRegistry;
 import com.microblink.blinkid.locale.LanguageUtils;
 import com.microblink.blinkid.uisettings.CameraSettings;
 import com.microblink.blinkid.hardware.camera.VideoResolutionPreset;
@@ -20,48 +22,32 @@ import static com.microblink.blinkid.plugins.cordova.SerializationUtils.getStrin
 public final class BlinkIdOverlaySettingsSerialization implements OverlaySettingsSerialization {
     @Override
     public UISettings createUISettings(Context context, JSONObject jsonUISettings, RecognizerBundle recognizerBundle) {
-        BlinkIdUISettings settings = new BlinkIdUISettings(recognizerBundle);
-
-        OverlaySerializationUtils.prepareCommonUiSettings(context, jsonUISettings, settings);
-
-        boolean requireDocumentSidesDataMatch = jsonUISettings.optBoolean("requireDocumentSidesDataMatch", true);
-        settings.setDocumentDataMatchRequired(requireDocumentSidesDataMatch);
-
-        boolean showNotSupportedDialog = jsonUISettings.optBoolean("showNotSupportedDialog", true);
-        settings.setShowNotSupportedDialog(showNotSupportedDialog);
-
-        boolean showFlashlightWarning = jsonUISettings.optBoolean("showFlashlightWarning", true);
-        settings.setShowFlashlightWarning(showFlashlightWarning);
-
-        boolean showMandatoryFieldsMissing = jsonUISettings.optBoolean("showMandatoryFieldsMissing", true);
-        settings.setShowMandatoryFieldsMissing(showMandatoryFieldsMissing);
-
-        boolean showOnboardingInfo = jsonUISettings.optBoolean("showOnboardingInfo", true);
-        settings.setShowOnboardingInfo(showOnboardingInfo);
-        
-        boolean showIntroductionDialog = jsonUISettings.optBoolean("showIntroductionDialog", false);
-        settings.setShowIntroductionDialog(showIntroductionDialog);
-
-        boolean showTorchButton = jsonUISettings.optBoolean("showTorchButton", true);
-        settings.setShowTorchButton(showTorchButton);
-
-        boolean showCancelButton = jsonUISettings.optBoolean("showCancelButton", true);
-        settings.setShowCancelButton(showCancelButton);
-        
-        long onboardingButtonTooltipDelay = jsonUISettings.optLong("onboardingButtonTooltipDelay", 12000);
-        settings.setShowTooltipTimeIntervalMs(onboardingButtonTooltipDelay);
+        return compileOverlaySettings(context, jsonUISettings).createUISettings(context, recognizerBundle);
+    }
 
-        long backSideScanningTimeoutMilliseconds = jsonUISettings.optLong("backSideScanningTimeoutMilliseconds", 17000);
-        settings.setBackSideScanningTimeoutMs(backSideScanningTimeoutMilliseconds);
+    @Override
+    public OverlaySettingsTemplate compileOverlaySettings(Context context, JSONObject jsonUISettings) {
+        final OverlaySerializationUtils.CommonUiSettings commonUiSettings = OverlaySerializationUtils.deserializeCommonUiSettings(context, jsonUISettings);
+
+        final boolean requireDocumentSidesDataMatch = jsonUISettings.optBoolean("requireDocumentSidesDataMatch", true);
+        final boolean showNotSupportedDialog = jsonUISettings.optBoolean("showNotSupportedDialog", true);
+        final boolean showFlashlightWarning = jsonUISettings.optBoolean("showFlashlightWarning", true);
+        final boolean showMandatoryFieldsMissing = jsonUISettings.optBoolean("showMandatoryFieldsMissing", true);
+        final boolean showOnboardingInfo = jsonUISettings.optBoolean("showOnboardingInfo", true);
+        final boolean showIntroductionDialog = jsonUISettings.optBoolean("showIntroductionDialog", false);
+        final boolean showTorchButton = jsonUISettings.optBoolean("showTorchButton", true);
+        final boolean showCancelButton = jsonUISettings.optBoolean("showCancelButton", true);
+        final long onboardingButtonTooltipDelay = jsonUISettings.optLong("onboardingButtonTooltipDelay", 12000);
+        final long backSideScanningTimeoutMilliseconds = jsonUISettings.optLong("backSideScanningTimeoutMilliseconds", 17000);
 
         int videoResolutionPreset = jsonUISettings.optInt("androidCameraResolutionPreset", VideoResolutionPreset.VIDEO_RESOLUTION_DEFAULT.ordinal());
         
         boolean androidLegacyCameraApi = jsonUISettings.optBoolean("enableAndroidLegacyCameraApi", false);
 
-        settings.setCameraSettings(new CameraSettings.Builder()
-                .setVideoResolutionPreset(VideoResolutionPreset.values()[videoResolutionPreset])
+        final CameraSettings cameraSettings = new CameraSettings.Builder()
+                .setVideoResolutionPreset(EnumRegistry.INSTANCE.fromOrdinal(VideoResolutionPreset.class, videoResolutionPreset))
                 .setForceLegacyApi(androidLegacyCameraApi)
-                .build());
+                .build();
 
         ReticleOverlayStrings.Builder overlasStringsBuilder = new ReticleOverlayStrings.Builder(context);
 
@@ -161,17 +147,40 @@ public final class BlinkIdOverlaySettingsSerialization implements OverlaySetting
         if (errorScanningWrongPageRight != null) {
             overlasStringsBuilder.setErrorScanningWrongPageRight(errorScanningWrongPageRight);
         }
-        String language = getStringFromJSONObject(jsonUISettings, "language");
-        if (language != null) {
-            String country = getStringFromJSONObject(jsonUISettings, "country");
-            if (country != null) {
-                LanguageUtils.setLanguageAndCountry(language, country, context);
-            }
-        }
+        final ReticleOverlayStrings strings = overlasStringsBuilder.build();
+
+        final String language = getStringFromJSONObject(jsonUISettings, "language");
+        final String country = getStringFromJSONObject(jsonUISettings, "country");
 
-        settings.setStrings(overlasStringsBuilder.build());
+        return new OverlaySettingsTemplate() {
+            @Override
+            public UISettings createUISettings(Context context, RecognizerBundle recognizerBundle) {
+                BlinkIdUISettings settings = new BlinkIdUISettings(recognizerBundle);
 
-        return settings;
+                commonUiSettings.applyTo(settings);
+
+                settings.setDocumentDataMatchRequired(requireDocumentSidesDataMatch);
+                settings.setShowNotSupportedDialog(showNotSupportedDialog);
+                settings.setShowFlashlightWarning(showFlashlightWarning);
+                settings.setShowMandatoryFieldsMissing(showMandatoryFieldsMissing);
+                settings.setShowOnboardingInfo(showOnboardingInfo);
+                settings.setShowIntroductionDialog(showIntroductionDialog);
+                settings.setShowTorchButton(showTorchButton);
+                settings.setShowCancelButton(showCancelButton);
+                settings.setShowTooltipTimeIntervalMs(onboardingButtonTooltipDelay);
+                settings.setBackSideScanningTimeoutMs(backSideScanningTimeoutMilliseconds);
+                settings.setCameraSettings(cameraSettings);
+
+                // the SDK language is global, another overlay may have changed it since the template was compiled
+                if (language != null && country != null) {
+                    LanguageUtils.setLanguageAndCountry(language, country, context);
+                }
+
+                settings.setStrings(strings);
+
+                return settings;
+            }
+        };
     }
 
     @Override
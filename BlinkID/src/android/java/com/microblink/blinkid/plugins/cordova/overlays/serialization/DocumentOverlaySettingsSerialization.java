@@ -7,15 +7,27 @@ import com.microblink.blinkid.uisettings.DocumentUISettings;
 import com.microblink.blinkid.uisettings.UISettings;
 import com.microblink.blinkid.plugins.cordova.overlays.OverlaySettingsSerialization;
 import com.microblink.blinkid.plugins.cordova.overlays.OverlaySerializationUtils;
+import com.microblink.blinkid.plugins.cordova.overlays.OverlaySettingsTemplate;
 
 import org.json.JSONObject;
 
 public final class DocumentOverlaySettingsSerialization implements OverlaySettingsSerialization {
     @Override
     public UISettings createUISettings(Context context, JSONObject jsonUISettings, RecognizerBundle recognizerBundle) {
-        DocumentUISettings settings =  new DocumentUISettings(recognizerBundle);
-        OverlaySerializationUtils.prepareCommonUiSettings(context, jsonUISettings, settings);
-        return settings;
+        return compileOverlaySettings(context, jsonUISettings).createUISettings(context, recognizerBundle);
+    }
+
+    @Override
+    public OverlaySettingsTemplate compileOverlaySettings(Context context, JSONObject jsonUISettings) {
+        final OverlaySerializationUtils.CommonUiSettings commonUiSettings = OverlaySerializationUtils.deserializeCommonUiSettings(context, jsonUISettings);
+        return new OverlaySettingsTemplate() {
+            @Override
+            public UISettings createUISettings(Context context, RecognizerBundle recognizerBundle) {
+                DocumentUISettings settings =  new DocumentUISettings(recognizerBundle);
+                commonUiSettings.applyTo(settings);
+                return settings;
+            }
+        };
     }
 
     @Override
@@ -8,6 +8,7 @@ import com.microblink.blinkid.uisettings.LegacyDocumentVerificationUISettings;
 import com.microblink.blinkid.uisettings.UISettings;
 import com.microblink.blinkid.plugins.cordova.overlays.OverlaySettingsSerialization;
 import com.microblink.blinkid.plugins.cordova.overlays.OverlaySerializationUtils;
+import com.microblink.blinkid.plugins.cordova.overlays.OverlaySettingsTemplate;
 
 import org.json.JSONObject;
 
@@ -16,9 +17,12 @@ import static com.microblink.blinkid.plugins.cordova.SerializationUtils.getStrin
 public final class DocumentVerificationOverlaySettingsSerialization implements OverlaySettingsSerialization {
     @Override
     public UISettings createUISettings(Context context, JSONObject jsonUISettings, RecognizerBundle recognizerBundle) {
-        LegacyDocumentVerificationUISettings settings = new LegacyDocumentVerificationUISettings(recognizerBundle);
+        return compileOverlaySettings(context, jsonUISettings).createUISettings(context, recognizerBundle);
+    }
 
-        OverlaySerializationUtils.prepareCommonUiSettings(context, jsonUISettings, settings);
+    @Override
+    public OverlaySettingsTemplate compileOverlaySettings(Context context, JSONObject jsonUISettings) {
+        final OverlaySerializationUtils.CommonUiSettings commonUiSettings = OverlaySerializationUtils.deserializeCommonUiSettings(context, jsonUISettings);
 
         LegacyDocumentVerificationOverlayStrings.Builder overlasStringsBuilder = new LegacyDocumentVerificationOverlayStrings.Builder(context);
         String firstSideSplashMessage = getStringFromJSONObject(jsonUISettings, "firstSideSplashMessage");
@@ -41,9 +45,17 @@ public final class DocumentVerificationOverlaySettingsSerialization implements O
         if (glareMessage != null) {
             overlasStringsBuilder.setGlareMessage(glareMessage);
         }
-        settings.setStrings(overlasStringsBuilder.build());
+        final LegacyDocumentVerificationOverlayStrings strings = overlasStringsBuilder.build();
 
-        return settings;
+        return new OverlaySettingsTemplate() {
+            @Override
+            public UISettings createUISettings(Context context, RecognizerBundle recognizerBundle) {
+                LegacyDocumentVerificationUISettings settings = new LegacyDocumentVerificationUISettings(recognizerBundle);
+                commonUiSettings.applyTo(settings);
+                settings.setStrings(strings);
+                return settings;
+            }
+        };
     }
 
     @Override
@@ -0,0 +1,23 @@
+package com.microblink.blinkid.plugins.cordova.recognizers;
+
+import com.microblink.blinkid.entities.recognizers.Recognizer;
+
+import org.json.JSONObject;
+
+/**
+ * Implemented by serializations of recognizers with settings that are Java objects, such as the
+ * class filter callback. {@link Recognizer#clone()} copies the native settings of a recognizer,
+ * but it is not documented to copy the Java objects set on it, so {@link RecognizerBundleTemplate}
+ * applies these settings again to every copy of its prototypes.
+ */
+public interface CallbackSettingsSerialization {
+
+    interface CallbackSettings {
+        void applyTo(Recognizer<?> recognizer);
+    }
+
+    /**
+     * @return the Java object settings of the recognizer, or {@code null} if it has none
+     */
+    CallbackSettings deserializeCallbackSettings(JSONObject jsonRecognizer);
+}
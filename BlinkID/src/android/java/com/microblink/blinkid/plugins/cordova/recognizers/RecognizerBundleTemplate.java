@@ -0,0 +1,74 @@
+package com.microblink.blinkid.plugins.cordova.recognizers;
+
+import com.microblink.blinkid.entities.recognizers.Recognizer;
+import com.microblink.blinkid.entities.recognizers.RecognizerBundle;
+
+import java.util.Arrays;
+
+/**
+ * Recognizer collection that was validated and deserialized once. The configured recognizers are
+ * kept as prototypes that never scan, each bundle gets its own copies of them, so creating a
+ * bundle does not parse the JSON of the collection again.
+ *
+ * {@link Recognizer#clone()} is relied on for the native settings only. Settings that are Java
+ * objects, such as the class filter, are applied to every copy again from their deserialized
+ * {@link CallbackSettingsSerialization.CallbackSettings}.
+ *
+ * The SDK frees the native memory of a recognizer once the recognizer is no longer referenced,
+ * there is no call that destroys it on demand. {@link #release()} therefore drops every reference
+ * to the prototypes, including the one held by templates that callers still hold.
+ */
+public final class RecognizerBundleTemplate {
+    private Recognizer<?>[] mPrototypes; // guarded by this
+    // null for prototypes without Java object settings
+    private final CallbackSettingsSerialization.CallbackSettings[] mCallbackSettings;
+    private final boolean mAllowMultipleResults;
+    private final int mNumMsBeforeTimeout;
+
+    RecognizerBundleTemplate(Recognizer<?>[] prototypes, CallbackSettingsSerialization.CallbackSettings[] callbackSettings,
+                             boolean allowMultipleResults, int numMsBeforeTimeout) {
+        mPrototypes = prototypes;
+        mCallbackSettings = callbackSettings;
+        mAllowMultipleResults = allowMultipleResults;
+        mNumMsBeforeTimeout = numMsBeforeTimeout;
+    }
+
+    /**
+     * @return new bundle with fresh copies of the configured recognizers, {@code null} if the
+     *         template was released
+     */
+    public RecognizerBundle createRecognizerBundle() {
+        Recognizer<?>[] recognizers;
+        synchronized (this) {
+            if (mPrototypes == null) {
+                return null;
+            }
+            recognizers = new Recognizer[mPrototypes.length];
+            for (int i = 0; i < mPrototypes.length; ++i) {
+                recognizers[i] = mPrototypes[i].clone();
+            }
+        }
+        for (int i = 0; i < recognizers.length; ++i) {
+            if (mCallbackSettings[i] != null) {
+                mCallbackSettings[i].applyTo(recognizers[i]);
+            }
+        }
+        RecognizerBundle recognizerBundle = new RecognizerBundle(recognizers);
+        recognizerBundle.setAllowMultipleScanResultsOnSingleImage(mAllowMultipleResults);
+        recognizerBundle.setNumMsBeforeTimeout(mNumMsBeforeTimeout);
+        return recognizerBundle;
+    }
+
+    /**
+     * Releases the prototype recognizers, the template creates no bundles afterwards. Bundles
+     * that were already created are not affected.
+     */
+    public void release() {
+        synchronized (this) {
+            if (mPrototypes != null) {
+                Arrays.fill(mPrototypes, null);
+                mPrototypes = null;
+            }
+        }
+    }
+}
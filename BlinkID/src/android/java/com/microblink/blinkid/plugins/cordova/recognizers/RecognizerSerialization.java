@@ -1,12 +1,13 @@
 package com.microblink.blinkid.plugins.cordova.recognizers;
 
 import com.microblink.blinkid.entities.recognizers.Recognizer;
+import com.microblink.blinkid.plugins.cordova.ResultSerializationContext;
 
 import org.json.JSONObject;
 
 public interface RecognizerSerialization {
     Recognizer<?> createRecognizer(JSONObject jsonObject);
-    JSONObject serializeResult(Recognizer<?> recognizer);
+    JSONObject serializeResult(Recognizer<?> recognizer, ResultSerializationContext serializationContext);
 
     String getJsonName();
     Class<?> getRecognizerClass();
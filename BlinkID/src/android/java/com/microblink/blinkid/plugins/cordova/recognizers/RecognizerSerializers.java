@@ -2,6 +2,7 @@ package com.microblink.blinkid.plugins.cordova.recognizers;
 
 import com.microblink.blinkid.entities.recognizers.Recognizer;
 import com.microblink.blinkid.entities.recognizers.RecognizerBundle;
+import com.microblink.blinkid.plugins.cordova.ResultSerializationContext;
 import com.microblink.blinkid.plugins.cordova.recognizers.serialization.*;
 
 import org.json.JSONArray;
@@ -9,6 +10,8 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public enum RecognizerSerializers {
     INSTANCE;
@@ -16,6 +19,21 @@ public enum RecognizerSerializers {
     private HashMap<String, RecognizerSerialization> mByJSONName = new HashMap<>();
     private HashMap<Class<?>, RecognizerSerialization> mByClass = new HashMap<>();
 
+    // the prototypes of every template hold native recognizers, so only a few templates are kept
+    private static final int MAX_CACHED_TEMPLATES = 4;
+
+    // compiled templates keyed by the fingerprint of the recognizer collection, least recently used first
+    private final LinkedHashMap<String, RecognizerBundleTemplate> mTemplates = new LinkedHashMap<String, RecognizerBundleTemplate>(MAX_CACHED_TEMPLATES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RecognizerBundleTemplate> eldest) {
+            if (size() > MAX_CACHED_TEMPLATES) {
+                eldest.getValue().release();
+                return true;
+            }
+            return false;
+        }
+    };
+
     private void registerMapping( RecognizerSerialization recognizerSerialization ) {
         mByJSONName.put(recognizerSerialization.getJsonName(), recognizerSerialization);
         mByClass.put(recognizerSerialization.getRecognizerClass(), recognizerSerialization);
@@ -45,28 +63,115 @@ public enum RecognizerSerializers {
     }
 
     public RecognizerBundle deserializeRecognizerCollection(JSONObject jsonRecognizerCollection) {
+        return compileRecognizerCollection(jsonRecognizerCollection).createRecognizerBundle();
+    }
+
+    /**
+     * Creates the bundle from the cached template of the recognizer collection.
+     *
+     * @see #compileRecognizerCollection(JSONObject, String)
+     */
+    public RecognizerBundle deserializeRecognizerCollection(JSONObject jsonRecognizerCollection, String fingerprint) {
+        RecognizerBundle recognizerBundle = compileRecognizerCollection(jsonRecognizerCollection, fingerprint).createRecognizerBundle();
+        if (recognizerBundle == null) {
+            // the template was evicted and released after it was looked up
+            recognizerBundle = deserializeRecognizerCollection(jsonRecognizerCollection);
+        }
+        return recognizerBundle;
+    }
+
+    /**
+     * Returns the cached template of the recognizer collection, the collection is compiled only if
+     * no template with the same fingerprint is cached.
+     *
+     * @param fingerprint fingerprint of the recognizer collection content
+     * @throws IllegalArgumentException if the recognizer collection is not valid
+     */
+    public RecognizerBundleTemplate compileRecognizerCollection(JSONObject jsonRecognizerCollection, String fingerprint) {
+        RecognizerBundleTemplate template;
+        synchronized (mTemplates) {
+            template = mTemplates.get(fingerprint);
+        }
+        if (template == null) {
+            RecognizerBundleTemplate compiledTemplate = compileRecognizerCollection(jsonRecognizerCollection);
+            synchronized (mTemplates) {
+                template = mTemplates.get(fingerprint);
+                if (template == null) {
+                    template = compiledTemplate;
+                    mTemplates.put(fingerprint, template);
+                } else {
+                    // the same collection was compiled concurrently, the cached template is kept
+                    compiledTemplate.release();
+                }
+            }
+        }
+        return template;
+    }
+
+    /**
+     * Validates and deserializes the recognizer collection.
+     *
+     * @throws IllegalArgumentException if the recognizer collection is not valid, e.g. it contains
+     *         an unknown recognizer type or an invalid enum value
+     */
+    public RecognizerBundleTemplate compileRecognizerCollection(JSONObject jsonRecognizerCollection) {
         try {
-            JSONArray recognizerArray = jsonRecognizerCollection.getJSONArray("recognizerArray");
+            JSONArray recognizerArray = jsonRecognizerCollection.optJSONArray("recognizerArray");
+            if (recognizerArray == null || recognizerArray.length() == 0) {
+                throw new IllegalArgumentException("Recognizer collection must contain at least one recognizer!");
+            }
             int numRecognizers = recognizerArray.length();
             Recognizer<?>[] recognizers = new Recognizer[numRecognizers];
+            CallbackSettingsSerialization.CallbackSettings[] callbackSettings = new CallbackSettingsSerialization.CallbackSettings[numRecognizers];
             for (int i = 0; i < numRecognizers; ++i) {
-                recognizers[ i ] = getRecognizerSerialization(recognizerArray.getJSONObject(i)).createRecognizer(recognizerArray.getJSONObject(i));
+                JSONObject jsonRecognizer = recognizerArray.getJSONObject(i);
+                RecognizerSerialization recognizerSerialization = getRecognizerSerialization(jsonRecognizer);
+                if (recognizerSerialization == null) {
+                    throw new IllegalArgumentException("Unknown recognizer type '" + jsonRecognizer.getString("recognizerType") + "'!");
+                }
+                recognizers[ i ] = recognizerSerialization.createRecognizer(jsonRecognizer);
+                if (recognizerSerialization instanceof CallbackSettingsSerialization) {
+                    callbackSettings[ i ] = ((CallbackSettingsSerialization) recognizerSerialization).deserializeCallbackSettings(jsonRecognizer);
+                }
             }
-            RecognizerBundle recognizerBundle = new RecognizerBundle(recognizers);
-            recognizerBundle.setAllowMultipleScanResultsOnSingleImage(jsonRecognizerCollection.optBoolean("allowMultipleResults", false));
-            recognizerBundle.setNumMsBeforeTimeout(jsonRecognizerCollection.optInt("milisecondsBeforeTimeout", 10000));
-
-            return recognizerBundle;
+            return new RecognizerBundleTemplate(recognizers, callbackSettings,
+                    jsonRecognizerCollection.optBoolean("allowMultipleResults", false),
+                    jsonRecognizerCollection.optInt("milisecondsBeforeTimeout", 10000));
         } catch (JSONException e) {
-            throw new RuntimeException(e);
+            throw new IllegalArgumentException("Invalid recognizer collection: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Releases and drops all cached templates together with the native memory of their prototype
+     * recognizers. Bundles created from the templates are not affected.
+     */
+    public void clearCompiledRecognizerCollections() {
+        synchronized (mTemplates) {
+            for (RecognizerBundleTemplate template : mTemplates.values()) {
+                template.release();
+            }
+            mTemplates.clear();
         }
     }
 
     public JSONArray serializeRecognizerResults(Recognizer<?>[] recognizers) {
+        return serializeRecognizerResults(recognizers, new ResultSerializationContext());
+    }
+
+    public JSONArray serializeRecognizerResults(Recognizer<?>[] recognizers, ResultSerializationContext serializationContext) {
         JSONArray jsonArray = new JSONArray();
 
-        for (Recognizer<?> recognizer : recognizers) {
-            jsonArray.put(getRecognizerSerialization(recognizer).serializeResult(recognizer));
+        for (int i = 0; i < recognizers.length; ++i) {
+            serializationContext.startRecognizerResult(i);
+            jsonArray.put(getRecognizerSerialization(recognizers[i]).serializeResult(recognizers[i], serializationContext));
+        }
+
+        try {
+            // wait for images of all results, they are encoded in parallel
+            serializationContext.finish();
+        } catch (JSONException e) {
+            throw new RuntimeException(e);
         }
 
         return jsonArray;
@@ -1,5 +1,6 @@
 package com.microblink.blinkid.plugins.cordova.recognizers.serialization;
 
+import com.microblink.blinkid.plugins.cordova.EnumRegistry;
 import com.microblink.blinkid.plugins.cordova.SerializationUtils;
 
 import com.microblink.blinkid.entities.recognizers.blinkid.mrtd.MrzResult;
@@ -34,14 +35,16 @@ import com.microblink.blinkid.entities.recognizers.blinkid.generic.CustomClassRu
 import com.microblink.blinkid.entities.recognizers.blinkid.generic.DetailedFieldType;
 import com.microblink.blinkid.entities.recognizers.blinkid.generic.DependentInfo;
 import com.microblink.blinkid.entities.recognizers.blinkid.generic.ClassFilter;
+import com.microblink.blinkid.geometry.Rectangle;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
-import android.os.Parcel;
-import androidx.annotation.NonNull;
 
 public abstract class BlinkIDSerializationUtils {
+    private static final AlphabetType[] ALPHABETS = {AlphabetType.Latin, AlphabetType.Arabic, AlphabetType.Cyrillic, AlphabetType.Greek};
+    private static final String[] ALPHABET_NAMES = {"latin", "arabic", "cyrillic", "greek"};
+
     public static JSONObject serializeMrzResult(MrzResult mrzResult) throws JSONException {
         JSONObject jsonMrz = new JSONObject();
         jsonMrz.put("documentType", mrzResult.getDocumentType().ordinal());
@@ -71,26 +74,26 @@ public abstract class BlinkIDSerializationUtils {
         return jsonMrz;
     }
 
-    public static JSONObject serializeDriverLicenseDetailedInfo(DriverLicenseDetailedInfo dlDetailedInfo) throws JSONException {
+    public static JSONObject serializeDriverLicenseDetailedInfo(DriverLicenseDetailedInfo dlDetailedInfo, boolean sparse) throws JSONException {
         JSONObject jsonDriverLicenseDetailedInfo = new JSONObject();
-        jsonDriverLicenseDetailedInfo.put("restrictions", serializeStringResult(dlDetailedInfo.getRestrictions()));
-        jsonDriverLicenseDetailedInfo.put("endorsements", serializeStringResult(dlDetailedInfo.getEndorsements()));
-        jsonDriverLicenseDetailedInfo.put("vehicleClass", serializeStringResult(dlDetailedInfo.getVehicleClass()));
-        jsonDriverLicenseDetailedInfo.put("conditions", serializeStringResult(dlDetailedInfo.getConditions()));
+        jsonDriverLicenseDetailedInfo.put("restrictions", serializeStringResult(dlDetailedInfo.getRestrictions(), sparse));
+        jsonDriverLicenseDetailedInfo.put("endorsements", serializeStringResult(dlDetailedInfo.getEndorsements(), sparse));
+        jsonDriverLicenseDetailedInfo.put("vehicleClass", serializeStringResult(dlDetailedInfo.getVehicleClass(), sparse));
+        jsonDriverLicenseDetailedInfo.put("conditions", serializeStringResult(dlDetailedInfo.getConditions(), sparse));
         JSONArray vehicleClassesInfo = new JSONArray();
         for (int i = 0; i < dlDetailedInfo.getVehicleClassesInfo().length; ++i) {
-            vehicleClassesInfo.put(serializeVehicleClassInfo(dlDetailedInfo.getVehicleClassesInfo()[i]));
+            vehicleClassesInfo.put(serializeVehicleClassInfo(dlDetailedInfo.getVehicleClassesInfo()[i], sparse));
         }
         jsonDriverLicenseDetailedInfo.put("vehicleClassesInfo", vehicleClassesInfo);
         return jsonDriverLicenseDetailedInfo;
     }
 
-    public static JSONObject serializeVehicleClassInfo(VehicleClassInfo vehicleClassInfo) throws JSONException {
+    public static JSONObject serializeVehicleClassInfo(VehicleClassInfo vehicleClassInfo, boolean sparse) throws JSONException {
         JSONObject jsonVehicleClassInfo = new JSONObject();
-        jsonVehicleClassInfo.put("vehicleClass", serializeStringResult(vehicleClassInfo.getVehicleClass()));
-        jsonVehicleClassInfo.put("licenceType", serializeStringResult(vehicleClassInfo.getLicenceType()));
-        jsonVehicleClassInfo.put("effectiveDate", serializeDateResult(vehicleClassInfo.getEffectiveDate()));
-        jsonVehicleClassInfo.put("expiryDate", serializeDateResult(vehicleClassInfo.getExpiryDate()));
+        jsonVehicleClassInfo.put("vehicleClass", serializeStringResult(vehicleClassInfo.getVehicleClass(), sparse));
+        jsonVehicleClassInfo.put("licenceType", serializeStringResult(vehicleClassInfo.getLicenceType(), sparse));
+        jsonVehicleClassInfo.put("effectiveDate", serializeDateResult(vehicleClassInfo.getEffectiveDate(), sparse));
+        jsonVehicleClassInfo.put("expiryDate", serializeDateResult(vehicleClassInfo.getExpiryDate(), sparse));
         return jsonVehicleClassInfo;
     }
 
@@ -136,34 +139,34 @@ public abstract class BlinkIDSerializationUtils {
         return jsonImageAnalysis;
     }
 
-    public static JSONObject serializeVizResult(VizResult vizResult) throws JSONException {
+    public static JSONObject serializeVizResult(VizResult vizResult, boolean sparse) throws JSONException {
         JSONObject jsonViz = new JSONObject();
-        jsonViz.put("firstName", serializeStringResult(vizResult.getFirstName()));
-        jsonViz.put("lastName", serializeStringResult(vizResult.getLastName()));
-        jsonViz.put("fullName", serializeStringResult(vizResult.getFullName()));
-        jsonViz.put("additionalNameInformation", serializeStringResult(vizResult.getAdditionalNameInformation()));
-        jsonViz.put("localizedName", serializeStringResult(vizResult.getLocalizedName()));
-        jsonViz.put("address", serializeStringResult(vizResult.getAddress()));
-        jsonViz.put("additionalAddressInformation", serializeStringResult(vizResult.getAdditionalAddressInformation()));
-        jsonViz.put("additionalOptionalAddressInformation", serializeStringResult(vizResult.getAdditionalOptionalAddressInformation()));
-        jsonViz.put("placeOfBirth", serializeStringResult(vizResult.getPlaceOfBirth()));
-        jsonViz.put("nationality", serializeStringResult(vizResult.getNationality()));
-        jsonViz.put("race", serializeStringResult(vizResult.getRace()));
-        jsonViz.put("religion", serializeStringResult(vizResult.getReligion()));
-        jsonViz.put("profession", serializeStringResult(vizResult.getProfession()));
-        jsonViz.put("maritalStatus", serializeStringResult(vizResult.getMaritalStatus()));
-        jsonViz.put("residentialStatus", serializeStringResult(vizResult.getResidentialStatus()));
-        jsonViz.put("employer", serializeStringResult(vizResult.getEmployer()));
-        jsonViz.put("sex", serializeStringResult(vizResult.getSex()));
-        jsonViz.put("dateOfBirth", serializeDateResult(vizResult.getDateOfBirth()));
-        jsonViz.put("dateOfIssue", serializeDateResult(vizResult.getDateOfIssue()));
-        jsonViz.put("dateOfExpiry", serializeDateResult(vizResult.getDateOfExpiry()));
-        jsonViz.put("documentNumber", serializeStringResult(vizResult.getDocumentNumber()));
-        jsonViz.put("personalIdNumber", serializeStringResult(vizResult.getPersonalIdNumber()));
-        jsonViz.put("documentAdditionalNumber", serializeStringResult(vizResult.getDocumentAdditionalNumber()));
-        jsonViz.put("additionalPersonalIdNumber", serializeStringResult(vizResult.getAdditionalPersonalIdNumber()));
-        jsonViz.put("issuingAuthority", serializeStringResult(vizResult.getIssuingAuthority()));
-        jsonViz.put("driverLicenseDetailedInfo", serializeDriverLicenseDetailedInfo(vizResult.getDriverLicenseDetailedInfo()));
+        jsonViz.put("firstName", serializeStringResult(vizResult.getFirstName(), sparse));
+        jsonViz.put("lastName", serializeStringResult(vizResult.getLastName(), sparse));
+        jsonViz.put("fullName", serializeStringResult(vizResult.getFullName(), sparse));
+        jsonViz.put("additionalNameInformation", serializeStringResult(vizResult.getAdditionalNameInformation(), sparse));
+        jsonViz.put("localizedName", serializeStringResult(vizResult.getLocalizedName(), sparse));
+        jsonViz.put("address", serializeStringResult(vizResult.getAddress(), sparse));
+        jsonViz.put("additionalAddressInformation", serializeStringResult(vizResult.getAdditionalAddressInformation(), sparse));
+        jsonViz.put("additionalOptionalAddressInformation", serializeStringResult(vizResult.getAdditionalOptionalAddressInformation(), sparse));
+        jsonViz.put("placeOfBirth", serializeStringResult(vizResult.getPlaceOfBirth(), sparse));
+        jsonViz.put("nationality", serializeStringResult(vizResult.getNationality(), sparse));
+        jsonViz.put("race", serializeStringResult(vizResult.getRace(), sparse));
+        jsonViz.put("religion", serializeStringResult(vizResult.getReligion(), sparse));
+        jsonViz.put("profession", serializeStringResult(vizResult.getProfession(), sparse));
+        jsonViz.put("maritalStatus", serializeStringResult(vizResult.getMaritalStatus(), sparse));
+        jsonViz.put("residentialStatus", serializeStringResult(vizResult.getResidentialStatus(), sparse));
+        jsonViz.put("employer", serializeStringResult(vizResult.getEmployer(), sparse));
+        jsonViz.put("sex", serializeStringResult(vizResult.getSex(), sparse));
+        jsonViz.put("dateOfBirth", serializeDateResult(vizResult.getDateOfBirth(), sparse));
+        jsonViz.put("dateOfIssue", serializeDateResult(vizResult.getDateOfIssue(), sparse));
+        jsonViz.put("dateOfExpiry", serializeDateResult(vizResult.getDateOfExpiry(), sparse));
+        jsonViz.put("documentNumber", serializeStringResult(vizResult.getDocumentNumber(), sparse));
+        jsonViz.put("personalIdNumber", serializeStringResult(vizResult.getPersonalIdNumber(), sparse));
+        jsonViz.put("documentAdditionalNumber", serializeStringResult(vizResult.getDocumentAdditionalNumber(), sparse));
+        jsonViz.put("additionalPersonalIdNumber", serializeStringResult(vizResult.getAdditionalPersonalIdNumber(), sparse));
+        jsonViz.put("issuingAuthority", serializeStringResult(vizResult.getIssuingAuthority(), sparse));
+        jsonViz.put("driverLicenseDetailedInfo", serializeDriverLicenseDetailedInfo(vizResult.getDriverLicenseDetailedInfo(), sparse));
         jsonViz.put("empty", vizResult.isEmpty());
         return jsonViz;
     }
@@ -210,8 +213,9 @@ public abstract class BlinkIDSerializationUtils {
         JSONObject jsonBarcodeElements = new JSONObject();
         jsonBarcodeElements.put("empty", barcodeElements.isEmpty());
         JSONArray valuesArr = new JSONArray();
-        for (int i = 0; i < BarcodeElementKey.values().length; ++i) {
-            valuesArr.put(barcodeElements.getValue(BarcodeElementKey.values()[i]));
+        List<BarcodeElementKey> keys = EnumRegistry.INSTANCE.values(BarcodeElementKey.class);
+        for (int i = 0; i < keys.size(); ++i) {
+            valuesArr.put(barcodeElements.getValue(keys.get(i)));
         }
         jsonBarcodeElements.put("values", valuesArr);
         return jsonBarcodeElements;
@@ -258,11 +262,17 @@ public abstract class BlinkIDSerializationUtils {
         return jsonFieldState;
     }
 
-    public static JSONObject serializeDateResult(DateResult dateResult) throws JSONException {
+    /**
+     * @param sparse if true, {@code isFilledByDomainKnowledge} is omitted when false and the original
+     *               date string is serialized with {@link #serializeStringResult(StringResult, boolean)} in sparse mode
+     */
+    public static JSONObject serializeDateResult(DateResult dateResult, boolean sparse) throws JSONException {
         JSONObject jsonDateResult = new JSONObject();
         if (dateResult != null && dateResult.getDate() != null) {
-            jsonDateResult.put("originalDateStringResult", serializeStringResult(dateResult.getOriginalDateString()));
-            jsonDateResult.put("isFilledByDomainKnowledge", dateResult.isFilledByDomainKnowledge());
+            jsonDateResult.put("originalDateStringResult", serializeStringResult(dateResult.getOriginalDateString(), sparse));
+            if (!sparse || dateResult.isFilledByDomainKnowledge()) {
+                jsonDateResult.put("isFilledByDomainKnowledge", dateResult.isFilledByDomainKnowledge());
+            }
             jsonDateResult.put("day", dateResult.getDate().getDay());
             jsonDateResult.put("month", dateResult.getDate().getMonth());
             jsonDateResult.put("year", dateResult.getDate().getYear());
@@ -270,7 +280,17 @@ public abstract class BlinkIDSerializationUtils {
         return jsonDateResult;
     }
 
-    public static JSONObject serializeStringResult(StringResult stringResult) throws JSONException {
+    /**
+     * @param sparse if true, only the properties that differ from their defaults are serialized:
+     *               empty values, empty rectangles, absent sides and a description equal to the first
+     *               non-empty value are omitted, {@code null} values and locations are serialized as
+     *               {@code null}. blinkIdScanner.js expands sparse string results back to exactly the
+     *               layout of the full format.
+     */
+    public static JSONObject serializeStringResult(StringResult stringResult, boolean sparse) throws JSONException {
+        if (sparse) {
+            return serializeSparseStringResult(stringResult);
+        }
         JSONObject jsonStringResult = new JSONObject();
 
         if (stringResult != null) {
@@ -298,6 +318,53 @@ public abstract class BlinkIDSerializationUtils {
         return jsonStringResult;
     }
 
+    private static JSONObject serializeSparseStringResult(StringResult stringResult) throws JSONException {
+        JSONObject jsonStringResult = new JSONObject();
+        if (stringResult == null) {
+            return jsonStringResult;
+        }
+        jsonStringResult.put("empty", stringResult.isEmpty());
+
+        String defaultDescription = "";
+        JSONObject jsonFieldLocations = new JSONObject();
+        JSONObject jsonDocumentSides = new JSONObject();
+        for (int i = 0; i < ALPHABETS.length; ++i) {
+            String value = stringResult.value(ALPHABETS[i]);
+            if (value == null) {
+                jsonStringResult.put(ALPHABET_NAMES[i], JSONObject.NULL);
+            } else if (!value.isEmpty()) {
+                jsonStringResult.put(ALPHABET_NAMES[i], value);
+                if (defaultDescription.isEmpty()) {
+                    defaultDescription = value;
+                }
+            }
+
+            Rectangle location = stringResult.location(ALPHABETS[i]);
+            if (location == null) {
+                jsonFieldLocations.put(ALPHABET_NAMES[i], JSONObject.NULL);
+            } else if (location.getX() != 0 || location.getY() != 0 || location.getWidth() != 0 || location.getHeight() != 0) {
+                jsonFieldLocations.put(ALPHABET_NAMES[i], SerializationUtils.serializeRectangle(location));
+            }
+            int side = serializeSide(stringResult.side(ALPHABETS[i]));
+            if (side != 0) {
+                jsonDocumentSides.put(ALPHABET_NAMES[i], side);
+            }
+        }
+        String description = stringResult.toString();
+        if (description == null) {
+            jsonStringResult.put("description", JSONObject.NULL);
+        } else if (!description.equals(defaultDescription)) {
+            jsonStringResult.put("description", description);
+        }
+        if (jsonFieldLocations.length() > 0) {
+            jsonStringResult.put("location", jsonFieldLocations);
+        }
+        if (jsonDocumentSides.length() > 0) {
+            jsonStringResult.put("side", jsonDocumentSides);
+        }
+        return jsonStringResult;
+    }
+
     public static JSONObject serializeAdditionalProcessingInfo(AdditionalProcessingInfo additionalProcessingInfo) throws JSONException {
         JSONObject jsonAdditionalProcessingInfo = new JSONObject();
         JSONArray missingMandatoryFieldsArr = new JSONArray();
@@ -355,20 +422,20 @@ public abstract class BlinkIDSerializationUtils {
                     JSONArray fieldTypeJsonArray = jsonClassAnonymizationSettings.optJSONArray("fields");
                     fieldTypes = new FieldType[fieldTypeJsonArray.length()];
                     for (int x = 0; x <fieldTypeJsonArray.length(); x++) {
-                        fieldTypes[x] = FieldType.values()[fieldTypeJsonArray.getInt(x)];
+                        fieldTypes[x] = EnumRegistry.INSTANCE.fromOrdinal(FieldType.class, fieldTypeJsonArray.getInt(x));
                     }
                     try {
-                        country = Country.values()[jsonClassAnonymizationSettings.getInt("country")];
+                        country = EnumRegistry.INSTANCE.fromOrdinal(Country.class, jsonClassAnonymizationSettings.getInt("country"));
                     } catch ( JSONException e) {
                         country = null;
                     }
                     try {
-                        region = Region.values()[jsonClassAnonymizationSettings.getInt("region")];
+                        region = EnumRegistry.INSTANCE.fromOrdinal(Region.class, jsonClassAnonymizationSettings.getInt("region"));
                     } catch ( JSONException e) {
                         region = null;
                     }
                     try {
-                        type = Type.values()[jsonClassAnonymizationSettings.getInt("type")];
+                        type = EnumRegistry.INSTANCE.fromOrdinal(Type.class, jsonClassAnonymizationSettings.getInt("type"));
                     } catch ( JSONException e) {
                         type = null;
                     }
@@ -414,22 +481,22 @@ public abstract class BlinkIDSerializationUtils {
                     JSONArray detailedFieldTypeJsonArray = jsonCustomClassRulesArray.optJSONArray("detailedFieldTypes");
                     detailedFieldTypes = new DetailedFieldType[detailedFieldTypeJsonArray.length()];
                     for (int x = 0; x < detailedFieldTypeJsonArray.length(); x++) {
-                        FieldType fieldType = FieldType.values()[detailedFieldTypeJsonArray.getJSONObject(x).getInt("fieldType")];
-                        AlphabetType alphabetType = AlphabetType.values()[detailedFieldTypeJsonArray.getJSONObject(x).getInt("alphabetType")];
+                        FieldType fieldType = EnumRegistry.INSTANCE.fromOrdinal(FieldType.class, detailedFieldTypeJsonArray.getJSONObject(x).getInt("fieldType"));
+                        AlphabetType alphabetType = EnumRegistry.INSTANCE.fromOrdinal(AlphabetType.class, detailedFieldTypeJsonArray.getJSONObject(x).getInt("alphabetType"));
                         detailedFieldTypes[x] = new DetailedFieldType(fieldType, alphabetType);
                     }
                     try {
-                        country = Country.values()[jsonCustomClassRulesArray.getInt("country")];
+                        country = EnumRegistry.INSTANCE.fromOrdinal(Country.class, jsonCustomClassRulesArray.getInt("country"));
                     } catch (JSONException e) {
                         country = null;
                     }
                     try {
-                        region = Region.values()[jsonCustomClassRulesArray.getInt("region")];
+                        region = EnumRegistry.INSTANCE.fromOrdinal(Region.class, jsonCustomClassRulesArray.getInt("region"));
                     } catch (JSONException e) {
                         region = null;
                     }
                     try {
-                        type = Type.values()[jsonCustomClassRulesArray.getInt("type")];
+                        type = EnumRegistry.INSTANCE.fromOrdinal(Type.class, jsonCustomClassRulesArray.getInt("type"));
                     } catch (JSONException e) {
                         type = null;
                     }
@@ -447,77 +514,18 @@ public abstract class BlinkIDSerializationUtils {
     }
 
     public static ClassFilter deserializeClassFilter(JSONObject jsonClassFilter) {
-        return new ClassFilter() {
-            @Override
-            public boolean classFilter(@NonNull ClassInfo classInfo) {
-                JSONArray jsonIncludeClasses = jsonClassFilter.optJSONArray("includeClasses");
-                JSONArray jsonExcludeClasses = jsonClassFilter.optJSONArray("excludeClasses");
-                boolean includeClass = false;
-                boolean excludeClass = true;
-
-                if (jsonIncludeClasses != null) {
-                    if (jsonIncludeClasses.length() > 0) {
-                        for (int x = 0; x < jsonIncludeClasses.length(); x++) {
-                            try {
-                                includeClass = includeClass || matchClassInfo(classInfo, jsonIncludeClasses.getJSONObject(x));
-                            } catch (JSONException e) {}
-                        }
-                    } else {
-                        includeClass = true;
-                    }
-                } else {
-                    includeClass = true;
-                }
-
-                if (jsonExcludeClasses != null) {
-                    for (int x = 0; x < jsonExcludeClasses.length(); x++) {
-                        try {
-                            excludeClass = excludeClass && !matchClassInfo(classInfo, jsonExcludeClasses.getJSONObject(x));
-                        } catch (JSONException e) {}
-                    }
-                }
-
-                return includeClass && excludeClass;
-            }
-
-            @Override
-            public int describeContents() {
-                return 0;
-            }
-
-            @Override
-            public void writeToParcel(@NonNull Parcel parcel, int i) {
-            }
-        };
-    }
-
-    // helper methods for ClassFilter
-    private static boolean matchClassInfo(ClassInfo classInfo, JSONObject jsonObject) {
-        Country country = getEnumValue(jsonObject, "country", Country.class);
-        Type type = getEnumValue(jsonObject, "type", Type.class);
-        Region region = getEnumValue(jsonObject, "region", Region.class);
-
-        return (country == null || classInfo.getCountry() == country) &&
-                (type == null || classInfo.getType() == type) &&
-                (region == null || classInfo.getRegion() == region);
-    }
-
-    private static <T extends Enum<T>> T getEnumValue(JSONObject jsonObject, String key, Class<T> enumType) {
-        try {
-            return enumType.getEnumConstants()[jsonObject.getInt(key)];
-        } catch (JSONException | IndexOutOfBoundsException e) {
-            return null;
-        }
+        // the filter is invoked for every classified frame, so its rules are compiled only once
+        return CompiledClassFilter.compile(jsonClassFilter);
     }
 
-    public static JSONArray serializeDependentInfo (DependentInfo[] dependentInfos) throws JSONException {
+    public static JSONArray serializeDependentInfo (DependentInfo[] dependentInfos, boolean sparse) throws JSONException {
         JSONArray jsonDependentInfos = new JSONArray();
         for (int i = 0; i < dependentInfos.length; ++i) {
             JSONObject jsonDependetsInfo = new JSONObject();
-            jsonDependetsInfo.put("dateOfBirth", BlinkIDSerializationUtils.serializeDateResult(dependentInfos[i].getDateOfBirth()));
-            jsonDependetsInfo.put("documentNumber",BlinkIDSerializationUtils.serializeStringResult(dependentInfos[i].getDocumentNumber()));
-            jsonDependetsInfo.put("sex",BlinkIDSerializationUtils.serializeStringResult(dependentInfos[i].getSex()));
-            jsonDependetsInfo.put("fullName",BlinkIDSerializationUtils.serializeStringResult(dependentInfos[i].getFullName()));
+            jsonDependetsInfo.put("dateOfBirth", BlinkIDSerializationUtils.serializeDateResult(dependentInfos[i].getDateOfBirth(), sparse));
+            jsonDependetsInfo.put("documentNumber",BlinkIDSerializationUtils.serializeStringResult(dependentInfos[i].getDocumentNumber(), sparse));
+            jsonDependetsInfo.put("sex",BlinkIDSerializationUtils.serializeStringResult(dependentInfos[i].getSex(), sparse));
+            jsonDependetsInfo.put("fullName",BlinkIDSerializationUtils.serializeStringResult(dependentInfos[i].getFullName(), sparse));
             jsonDependetsInfo.put("empty", dependentInfos[i].isEmpty());
             jsonDependentInfos.put(jsonDependetsInfo);
         }
@@ -1,13 +1,17 @@
 package com.microblink.blinkid.plugins.cordova.recognizers.serialization;
 
 import com.microblink.blinkid.entities.recognizers.Recognizer;
+import com.microblink.blinkid.plugins.cordova.recognizers.CallbackSettingsSerialization;
 import com.microblink.blinkid.plugins.cordova.recognizers.RecognizerSerialization;
+import com.microblink.blinkid.plugins.cordova.ResultFieldMask;
+import com.microblink.blinkid.plugins.cordova.ResultSerializationContext;
 import com.microblink.blinkid.plugins.cordova.SerializationUtils;
+import com.microblink.blinkid.plugins.cordova.EnumRegistry;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
-public final class BlinkIdMultiSideRecognizerSerialization implements RecognizerSerialization {
+public final class BlinkIdMultiSideRecognizerSerialization implements RecognizerSerialization, CallbackSettingsSerialization {
 
     @Override
     public Recognizer<?> createRecognizer(JSONObject jsonObject) {
@@ -17,9 +21,8 @@ public final class BlinkIdMultiSideRecognizerSerialization implements Recognizer
         recognizer.setAllowUncertainFrontSideScan(jsonObject.optBoolean("allowUncertainFrontSideScan", false));
         recognizer.setAllowUnparsedMrzResults(jsonObject.optBoolean("allowUnparsedMrzResults", false));
         recognizer.setAllowUnverifiedMrzResults(jsonObject.optBoolean("allowUnverifiedMrzResults", true));
-        recognizer.setAnonymizationMode(com.microblink.blinkid.entities.recognizers.blinkid.generic.AnonymizationMode.values()[jsonObject.optInt("anonymizationMode", 3)]);
-        recognizer.setBlurStrictnessLevel(com.microblink.blinkid.entities.recognizers.blinkid.generic.imageanalysis.StrictnessLevel.values()[jsonObject.optInt("blurStrictnessLevel", 1)]);
-        recognizer.setClassFilter(BlinkIDSerializationUtils.deserializeClassFilter(jsonObject.optJSONObject("classFilter")));
+        recognizer.setAnonymizationMode(EnumRegistry.INSTANCE.fromOrdinal(com.microblink.blinkid.entities.recognizers.blinkid.generic.AnonymizationMode.class, jsonObject.optInt("anonymizationMode", 3)));
+        recognizer.setBlurStrictnessLevel(EnumRegistry.INSTANCE.fromOrdinal(com.microblink.blinkid.entities.recognizers.blinkid.generic.imageanalysis.StrictnessLevel.class, jsonObject.optInt("blurStrictnessLevel", 1)));
         recognizer.setCombineFrameResults(jsonObject.optBoolean("combineFrameResults", true));
         recognizer.setCustomClassRules(BlinkIDSerializationUtils.deserializeCustomClassRules(jsonObject.optJSONArray("customClassRules")));
         recognizer.setEnableBlurFilter(jsonObject.optBoolean("enableBlurFilter", true));
@@ -27,7 +30,7 @@ public final class BlinkIdMultiSideRecognizerSerialization implements Recognizer
         recognizer.setFaceImageDpi(jsonObject.optInt("faceImageDpi", 250));
         recognizer.setFullDocumentImageDpi(jsonObject.optInt("fullDocumentImageDpi", 250));
         recognizer.setFullDocumentImageExtensionFactors(SerializationUtils.deserializeExtensionFactors(jsonObject.optJSONObject("fullDocumentImageExtensionFactors")));
-        recognizer.setGlareStrictnessLevel(com.microblink.blinkid.entities.recognizers.blinkid.generic.imageanalysis.StrictnessLevel.values()[jsonObject.optInt("glareStrictnessLevel", 1)]);
+        recognizer.setGlareStrictnessLevel(EnumRegistry.INSTANCE.fromOrdinal(com.microblink.blinkid.entities.recognizers.blinkid.generic.imageanalysis.StrictnessLevel.class, jsonObject.optInt("glareStrictnessLevel", 1)));
         recognizer.setMaxAllowedMismatchesPerField(jsonObject.optInt("maxAllowedMismatchesPerField", 0));
         recognizer.setPaddingEdge((float)jsonObject.optDouble("paddingEdge", 0.0));
         recognizer.setRecognitionModeFilter(BlinkIDSerializationUtils.deserializeRecognitionModeFilter(jsonObject.optJSONObject("recognitionModeFilter")));
@@ -40,83 +43,97 @@ public final class BlinkIdMultiSideRecognizerSerialization implements Recognizer
         recognizer.setSignatureImageDpi(jsonObject.optInt("signatureImageDpi", 250));
         recognizer.setSkipUnsupportedBack(jsonObject.optBoolean("skipUnsupportedBack", false));
         recognizer.setValidateResultCharacters(jsonObject.optBoolean("validateResultCharacters", true));
+        deserializeCallbackSettings(jsonObject).applyTo(recognizer);
         return recognizer;
     }
 
     @Override
-    public JSONObject serializeResult(Recognizer<?> recognizer) {
+    public CallbackSettings deserializeCallbackSettings(JSONObject jsonObject) {
+        final com.microblink.blinkid.entities.recognizers.blinkid.generic.ClassFilter classFilter = BlinkIDSerializationUtils.deserializeClassFilter(jsonObject.optJSONObject("classFilter"));
+        return new CallbackSettings() {
+            @Override
+            public void applyTo(Recognizer<?> recognizer) {
+                ((com.microblink.blinkid.entities.recognizers.blinkid.generic.BlinkIdMultiSideRecognizer) recognizer).setClassFilter(classFilter);
+            }
+        };
+    }
+
+    @Override
+    public JSONObject serializeResult(Recognizer<?> recognizer, ResultSerializationContext serializationContext) {
         com.microblink.blinkid.entities.recognizers.blinkid.generic.BlinkIdMultiSideRecognizer.Result result = ((com.microblink.blinkid.entities.recognizers.blinkid.generic.BlinkIdMultiSideRecognizer)recognizer).getResult();
+        ResultFieldMask fieldMask = serializationContext.getResultFieldMask();
+        boolean sparseStringResults = serializationContext.useSparseStringResults();
         JSONObject jsonResult = new JSONObject();
         try {
             SerializationUtils.addCommonRecognizerResultData(jsonResult, result);
-            jsonResult.put("additionalAddressInformation", BlinkIDSerializationUtils.serializeStringResult(result.getAdditionalAddressInformation()));
-            jsonResult.put("additionalNameInformation", BlinkIDSerializationUtils.serializeStringResult(result.getAdditionalNameInformation()));
-            jsonResult.put("additionalOptionalAddressInformation", BlinkIDSerializationUtils.serializeStringResult(result.getAdditionalOptionalAddressInformation()));
-            jsonResult.put("address", BlinkIDSerializationUtils.serializeStringResult(result.getAddress()));
-            jsonResult.put("age", result.getAge());
-            jsonResult.put("backAdditionalProcessingInfo", BlinkIDSerializationUtils.serializeAdditionalProcessingInfo(result.getBackAdditionalProcessingInfo()));
-            jsonResult.put("backCameraFrame", SerializationUtils.encodeImageBase64(result.getBackCameraFrame()));
-            jsonResult.put("backImageAnalysisResult", BlinkIDSerializationUtils.serializeImageAnalysisResult(result.getBackImageAnalysisResult()));
-            jsonResult.put("backProcessingStatus", SerializationUtils.serializeEnum(result.getBackProcessingStatus()));
-            jsonResult.put("backVizResult", BlinkIDSerializationUtils.serializeVizResult(result.getBackVizResult()));
-            jsonResult.put("barcodeCameraFrame", SerializationUtils.encodeImageBase64(result.getBarcodeCameraFrame()));
-            jsonResult.put("barcodeResult", BlinkIDSerializationUtils.serializeBarcodeResult(result.getBarcodeResult()));
-            jsonResult.put("barcodeStepUsed", result.isBarcodeStepUsed());
-            jsonResult.put("bloodType", BlinkIDSerializationUtils.serializeStringResult(result.getBloodType()));
-            jsonResult.put("classInfo", BlinkIDSerializationUtils.serializeClassInfo(result.getClassInfo()));
-            jsonResult.put("dataMatch", BlinkIDSerializationUtils.serializeDataMatchResult(result.getDataMatch()));
-            jsonResult.put("dateOfBirth", BlinkIDSerializationUtils.serializeDateResult(result.getDateOfBirth()));
-            jsonResult.put("dateOfExpiry", BlinkIDSerializationUtils.serializeDateResult(result.getDateOfExpiry()));
-            jsonResult.put("dateOfExpiryPermanent", result.isDateOfExpiryPermanent());
-            jsonResult.put("dateOfIssue", BlinkIDSerializationUtils.serializeDateResult(result.getDateOfIssue()));
-            jsonResult.put("dependentsInfo", BlinkIDSerializationUtils.serializeDependentInfo(result.getDependentsInfo()));
-            jsonResult.put("documentAdditionalNumber", BlinkIDSerializationUtils.serializeStringResult(result.getDocumentAdditionalNumber()));
-            jsonResult.put("documentNumber", BlinkIDSerializationUtils.serializeStringResult(result.getDocumentNumber()));
-            jsonResult.put("documentOptionalAdditionalNumber", BlinkIDSerializationUtils.serializeStringResult(result.getDocumentOptionalAdditionalNumber()));
-            jsonResult.put("documentSubtype", BlinkIDSerializationUtils.serializeStringResult(result.getDocumentSubtype()));
-            jsonResult.put("driverLicenseDetailedInfo", BlinkIDSerializationUtils.serializeDriverLicenseDetailedInfo(result.getDriverLicenseDetailedInfo()));
-            jsonResult.put("eligibilityCategory", BlinkIDSerializationUtils.serializeStringResult(result.getEligibilityCategory()));
-            jsonResult.put("employer", BlinkIDSerializationUtils.serializeStringResult(result.getEmployer()));
-            jsonResult.put("expired", result.isExpired());
-            jsonResult.put("faceImage", SerializationUtils.encodeImageBase64(result.getFaceImage()));
-            jsonResult.put("faceImageLocation", SerializationUtils.serializeRectangle(result.getFaceImageLocation()));
-            jsonResult.put("faceImageSide", BlinkIDSerializationUtils.serializeSide(result.getFaceImageSide()));
-            jsonResult.put("fathersName", BlinkIDSerializationUtils.serializeStringResult(result.getFathersName()));
-            jsonResult.put("firstName", BlinkIDSerializationUtils.serializeStringResult(result.getFirstName()));
-            jsonResult.put("frontAdditionalProcessingInfo", BlinkIDSerializationUtils.serializeAdditionalProcessingInfo(result.getFrontAdditionalProcessingInfo()));
-            jsonResult.put("frontCameraFrame", SerializationUtils.encodeImageBase64(result.getFrontCameraFrame()));
-            jsonResult.put("frontImageAnalysisResult", BlinkIDSerializationUtils.serializeImageAnalysisResult(result.getFrontImageAnalysisResult()));
-            jsonResult.put("frontProcessingStatus", SerializationUtils.serializeEnum(result.getFrontProcessingStatus()));
-            jsonResult.put("frontVizResult", BlinkIDSerializationUtils.serializeVizResult(result.getFrontVizResult()));
-            jsonResult.put("fullDocumentBackImage", SerializationUtils.encodeImageBase64(result.getFullDocumentBackImage()));
-            jsonResult.put("fullDocumentFrontImage", SerializationUtils.encodeImageBase64(result.getFullDocumentFrontImage()));
-            jsonResult.put("fullName", BlinkIDSerializationUtils.serializeStringResult(result.getFullName()));
-            jsonResult.put("issuingAuthority", BlinkIDSerializationUtils.serializeStringResult(result.getIssuingAuthority()));
-            jsonResult.put("lastName", BlinkIDSerializationUtils.serializeStringResult(result.getLastName()));
-            jsonResult.put("localizedName", BlinkIDSerializationUtils.serializeStringResult(result.getLocalizedName()));
-            jsonResult.put("manufacturingYear", BlinkIDSerializationUtils.serializeStringResult(result.getManufacturingYear()));
-            jsonResult.put("maritalStatus", BlinkIDSerializationUtils.serializeStringResult(result.getMaritalStatus()));
-            jsonResult.put("mothersName", BlinkIDSerializationUtils.serializeStringResult(result.getMothersName()));
-            jsonResult.put("mrzResult", BlinkIDSerializationUtils.serializeMrzResult(result.getMrzResult()));
-            jsonResult.put("nationality", BlinkIDSerializationUtils.serializeStringResult(result.getNationality()));
-            jsonResult.put("personalIdNumber", BlinkIDSerializationUtils.serializeStringResult(result.getPersonalIdNumber()));
-            jsonResult.put("placeOfBirth", BlinkIDSerializationUtils.serializeStringResult(result.getPlaceOfBirth()));
-            jsonResult.put("processingStatus", SerializationUtils.serializeEnum(result.getProcessingStatus()));
-            jsonResult.put("profession", BlinkIDSerializationUtils.serializeStringResult(result.getProfession()));
-            jsonResult.put("race", BlinkIDSerializationUtils.serializeStringResult(result.getRace()));
-            jsonResult.put("recognitionMode", SerializationUtils.serializeEnum(result.getRecognitionMode()));
-            jsonResult.put("religion", BlinkIDSerializationUtils.serializeStringResult(result.getReligion()));
-            jsonResult.put("remarks", BlinkIDSerializationUtils.serializeStringResult(result.getRemarks()));
-            jsonResult.put("residencePermitType", BlinkIDSerializationUtils.serializeStringResult(result.getResidencePermitType()));
-            jsonResult.put("residentialStatus", BlinkIDSerializationUtils.serializeStringResult(result.getResidentialStatus()));
-            jsonResult.put("scanningFirstSideDone", result.isScanningFirstSideDone());
-            jsonResult.put("sex", BlinkIDSerializationUtils.serializeStringResult(result.getSex()));
-            jsonResult.put("signatureImage", SerializationUtils.encodeImageBase64(result.getSignatureImage()));
-            jsonResult.put("specificDocumentValidity", BlinkIDSerializationUtils.serializeStringResult(result.getSpecificDocumentValidity()));
-            jsonResult.put("sponsor", BlinkIDSerializationUtils.serializeStringResult(result.getSponsor()));
-            jsonResult.put("vehicleOwner", BlinkIDSerializationUtils.serializeStringResult(result.getVehicleOwner()));
-            jsonResult.put("vehicleType", BlinkIDSerializationUtils.serializeStringResult(result.getVehicleType()));
-            jsonResult.put("visaType", BlinkIDSerializationUtils.serializeStringResult(result.getVisaType()));
+            if (fieldMask.includes("additionalAddressInformation")) jsonResult.put("additionalAddressInformation", BlinkIDSerializationUtils.serializeStringResult(result.getAdditionalAddressInformation(), sparseStringResults));
+            if (fieldMask.includes("additionalNameInformation")) jsonResult.put("additionalNameInformation", BlinkIDSerializationUtils.serializeStringResult(result.getAdditionalNameInformation(), sparseStringResults));
+            if (fieldMask.includes("additionalOptionalAddressInformation")) jsonResult.put("additionalOptionalAddressInformation", BlinkIDSerializationUtils.serializeStringResult(result.getAdditionalOptionalAddressInformation(), sparseStringResults));
+            if (fieldMask.includes("address")) jsonResult.put("address", BlinkIDSerializationUtils.serializeStringResult(result.getAddress(), sparseStringResults));
+            if (fieldMask.includes("age")) jsonResult.put("age", result.getAge());
+            if (fieldMask.includes("backAdditionalProcessingInfo")) jsonResult.put("backAdditionalProcessingInfo", BlinkIDSerializationUtils.serializeAdditionalProcessingInfo(result.getBackAdditionalProcessingInfo()));
+            if (fieldMask.includes("backCameraFrame")) serializationContext.putImage(jsonResult, "backCameraFrame", result.getBackCameraFrame());
+            if (fieldMask.includes("backImageAnalysisResult")) jsonResult.put("backImageAnalysisResult", BlinkIDSerializationUtils.serializeImageAnalysisResult(result.getBackImageAnalysisResult()));
+            if (fieldMask.includes("backProcessingStatus")) jsonResult.put("backProcessingStatus", SerializationUtils.serializeEnum(result.getBackProcessingStatus()));
+            if (fieldMask.includes("backVizResult")) jsonResult.put("backVizResult", BlinkIDSerializationUtils.serializeVizResult(result.getBackVizResult(), sparseStringResults));
+            if (fieldMask.includes("barcodeCameraFrame")) serializationContext.putImage(jsonResult, "barcodeCameraFrame", result.getBarcodeCameraFrame());
+            if (fieldMask.includes("barcodeResult")) jsonResult.put("barcodeResult", BlinkIDSerializationUtils.serializeBarcodeResult(result.getBarcodeResult()));
+            if (fieldMask.includes("barcodeStepUsed")) jsonResult.put("barcodeStepUsed", result.isBarcodeStepUsed());
+            if (fieldMask.includes("bloodType")) jsonResult.put("bloodType", BlinkIDSerializationUtils.serializeStringResult(result.getBloodType(), sparseStringResults));
+            if (fieldMask.includes("classInfo")) jsonResult.put("classInfo", BlinkIDSerializationUtils.serializeClassInfo(result.getClassInfo()));
+            if (fieldMask.includes("dataMatch")) jsonResult.put("dataMatch", BlinkIDSerializationUtils.serializeDataMatchResult(result.getDataMatch()));
+            if (fieldMask.includes("dateOfBirth")) jsonResult.put("dateOfBirth", BlinkIDSerializationUtils.serializeDateResult(result.getDateOfBirth(), sparseStringResults));
+            if (fieldMask.includes("dateOfExpiry")) jsonResult.put("dateOfExpiry", BlinkIDSerializationUtils.serializeDateResult(result.getDateOfExpiry(), sparseStringResults));
+            if (fieldMask.includes("dateOfExpiryPermanent")) jsonResult.put("dateOfExpiryPermanent", result.isDateOfExpiryPermanent());
+            if (fieldMask.includes("dateOfIssue")) jsonResult.put("dateOfIssue", BlinkIDSerializationUtils.serializeDateResult(result.getDateOfIssue(), sparseStringResults));
+            if (fieldMask.includes("dependentsInfo")) jsonResult.put("dependentsInfo", BlinkIDSerializationUtils.serializeDependentInfo(result.getDependentsInfo(), sparseStringResults));
+            if (fieldMask.includes("documentAdditionalNumber")) jsonResult.put("documentAdditionalNumber", BlinkIDSerializationUtils.serializeStringResult(result.getDocumentAdditionalNumber(), sparseStringResults));
+            if (fieldMask.includes("documentNumber")) jsonResult.put("documentNumber", BlinkIDSerializationUtils.serializeStringResult(result.getDocumentNumber(), sparseStringResults));
+            if (fieldMask.includes("documentOptionalAdditionalNumber")) jsonResult.put("documentOptionalAdditionalNumber", BlinkIDSerializationUtils.serializeStringResult(result.getDocumentOptionalAdditionalNumber(), sparseStringResults));
+            if (fieldMask.includes("documentSubtype")) jsonResult.put("documentSubtype", BlinkIDSerializationUtils.serializeStringResult(result.getDocumentSubtype(), sparseStringResults));
+            if (fieldMask.includes("driverLicenseDetailedInfo")) jsonResult.put("driverLicenseDetailedInfo", BlinkIDSerializationUtils.serializeDriverLicenseDetailedInfo(result.getDriverLicenseDetailedInfo(), sparseStringResults));
+            if (fieldMask.includes("eligibilityCategory")) jsonResult.put("eligibilityCategory", BlinkIDSerializationUtils.serializeStringResult(result.getEligibilityCategory(), sparseStringResults));
+            if (fieldMask.includes("employer")) jsonResult.put("employer", BlinkIDSerializationUtils.serializeStringResult(result.getEmployer(), sparseStringResults));
+            if (fieldMask.includes("expired")) jsonResult.put("expired", result.isExpired());
+            if (fieldMask.includes("faceImage")) serializationContext.putImage(jsonResult, "faceImage", result.getFaceImage());
+            if (fieldMask.includes("faceImageLocation")) jsonResult.put("faceImageLocation", SerializationUtils.serializeRectangle(result.getFaceImageLocation()));
+            if (fieldMask.includes("faceImageSide")) jsonResult.put("faceImageSide", BlinkIDSerializationUtils.serializeSide(result.getFaceImageSide()));
+            if (fieldMask.includes("fathersName")) jsonResult.put("fathersName", BlinkIDSerializationUtils.serializeStringResult(result.getFathersName(), sparseStringResults));
+            if (fieldMask.includes("firstName")) jsonResult.put("firstName", BlinkIDSerializationUtils.serializeStringResult(result.getFirstName(), sparseStringResults));
+            if (fieldMask.includes("frontAdditionalProcessingInfo")) jsonResult.put("frontAdditionalProcessingInfo", BlinkIDSerializationUtils.serializeAdditionalProcessingInfo(result.getFrontAdditionalProcessingInfo()));
+            if (fieldMask.includes("frontCameraFrame")) serializationContext.putImage(jsonResult, "frontCameraFrame", result.getFrontCameraFrame());
+            if (fieldMask.includes("frontImageAnalysisResult")) jsonResult.put("frontImageAnalysisResult", BlinkIDSerializationUtils.serializeImageAnalysisResult(result.getFrontImageAnalysisResult()));
+            if (fieldMask.includes("frontProcessingStatus")) jsonResult.put("frontProcessingStatus", SerializationUtils.serializeEnum(result.getFrontProcessingStatus()));
+            if (fieldMask.includes("frontVizResult")) jsonResult.put("frontVizResult", BlinkIDSerializationUtils.serializeVizResult(result.getFrontVizResult(), sparseStringResults));
+            if (fieldMask.includes("fullDocumentBackImage")) serializationContext.putImage(jsonResult, "fullDocumentBackImage", result.getFullDocumentBackImage());
+            if (fieldMask.includes("fullDocumentFrontImage")) serializationContext.putImage(jsonResult, "fullDocumentFrontImage", result.getFullDocumentFrontImage());
+            if (fieldMask.includes("fullName")) jsonResult.put("fullName", BlinkIDSerializationUtils.serializeStringResult(result.getFullName(), sparseStringResults));
+            if (fieldMask.includes("issuingAuthority")) jsonResult.put("issuingAuthority", BlinkIDSerializationUtils.serializeStringResult(result.getIssuingAuthority(), sparseStringResults));
+            if (fieldMask.includes("lastName")) jsonResult.put("lastName", BlinkIDSerializationUtils.serializeStringResult(result.getLastName(), sparseStringResults));
+            if (fieldMask.includes("localizedName")) jsonResult.put("localizedName", BlinkIDSerializationUtils.serializeStringResult(result.getLocalizedName(), sparseStringResults));
+            if (fieldMask.includes("manufacturingYear")) jsonResult.put("manufacturingYear", BlinkIDSerializationUtils.serializeStringResult(result.getManufacturingYear(), sparseStringResults));
+            if (fieldMask.includes("maritalStatus")) jsonResult.put("maritalStatus", BlinkIDSerializationUtils.serializeStringResult(result.getMaritalStatus(), sparseStringResults));
+            if (fieldMask.includes("mothersName")) jsonResult.put("mothersName", BlinkIDSerializationUtils.serializeStringResult(result.getMothersName(), sparseStringResults));
+            if (fieldMask.includes("mrzResult")) jsonResult.put("mrzResult", BlinkIDSerializationUtils.serializeMrzResult(result.getMrzResult()));
+            if (fieldMask.includes("nationality")) jsonResult.put("nationality", BlinkIDSerializationUtils.serializeStringResult(result.getNationality(), sparseStringResults));
+            if (fieldMask.includes("personalIdNumber")) jsonResult.put("personalIdNumber", BlinkIDSerializationUtils.serializeStringResult(result.getPersonalIdNumber(), sparseStringResults));
+            if (fieldMask.includes("placeOfBirth")) jsonResult.put("placeOfBirth", BlinkIDSerializationUtils.serializeStringResult(result.getPlaceOfBirth(), sparseStringResults));
+            if (fieldMask.includes("processingStatus")) jsonResult.put("processingStatus", SerializationUtils.serializeEnum(result.getProcessingStatus()));
+            if (fieldMask.includes("profession")) jsonResult.put("profession", BlinkIDSerializationUtils.serializeStringResult(result.getProfession(), sparseStringResults));
+            if (fieldMask.includes("race")) jsonResult.put("race", BlinkIDSerializationUtils.serializeStringResult(result.getRace(), sparseStringResults));
+            if (fieldMask.includes("recognitionMode")) jsonResult.put("recognitionMode", SerializationUtils.serializeEnum(result.getRecognitionMode()));
+            if (fieldMask.includes("religion")) jsonResult.put("religion", BlinkIDSerializationUtils.serializeStringResult(result.getReligion(), sparseStringResults));
+            if (fieldMask.includes("remarks")) jsonResult.put("remarks", BlinkIDSerializationUtils.serializeStringResult(result.getRemarks(), sparseStringResults));
+            if (fieldMask.includes("residencePermitType")) jsonResult.put("residencePermitType", BlinkIDSerializationUtils.serializeStringResult(result.getResidencePermitType(), sparseStringResults));
+            if (fieldMask.includes("residentialStatus")) jsonResult.put("residentialStatus", BlinkIDSerializationUtils.serializeStringResult(result.getResidentialStatus(), sparseStringResults));
+            if (fieldMask.includes("scanningFirstSideDone")) jsonResult.put("scanningFirstSideDone", result.isScanningFirstSideDone());
+            if (fieldMask.includes("sex")) jsonResult.put("sex", BlinkIDSerializationUtils.serializeStringResult(result.getSex(), sparseStringResults));
+            if (fieldMask.includes("signatureImage")) serializationContext.putImage(jsonResult, "signatureImage", result.getSignatureImage());
+            if (fieldMask.includes("specificDocumentValidity")) jsonResult.put("specificDocumentValidity", BlinkIDSerializationUtils.serializeStringResult(result.getSpecificDocumentValidity(), sparseStringResults));
+            if (fieldMask.includes("sponsor")) jsonResult.put("sponsor", BlinkIDSerializationUtils.serializeStringResult(result.getSponsor(), sparseStringResults));
+            if (fieldMask.includes("vehicleOwner")) jsonResult.put("vehicleOwner", BlinkIDSerializationUtils.serializeStringResult(result.getVehicleOwner(), sparseStringResults));
+            if (fieldMask.includes("vehicleType")) jsonResult.put("vehicleType", BlinkIDSerializationUtils.serializeStringResult(result.getVehicleType(), sparseStringResults));
+            if (fieldMask.includes("visaType")) jsonResult.put("visaType", BlinkIDSerializationUtils.serializeStringResult(result.getVisaType(), sparseStringResults));
         } catch (JSONException e) {
             // see https://developer.android.com/reference/org/json/JSONException
             throw new RuntimeException(e);
@@ -0,0 +1,178 @@
+package com.microblink.blinkid.plugins.cordova.recognizers.serialization;
+
+import android.os.Parcel;
+
+import androidx.annotation.NonNull;
+
+import com.microblink.blinkid.entities.recognizers.blinkid.generic.ClassFilter;
+import com.microblink.blinkid.entities.recognizers.blinkid.generic.classinfo.ClassInfo;
+import com.microblink.blinkid.entities.recognizers.blinkid.generic.classinfo.Country;
+import com.microblink.blinkid.entities.recognizers.blinkid.generic.classinfo.Region;
+import com.microblink.blinkid.entities.recognizers.blinkid.generic.classinfo.Type;
+import com.microblink.blinkid.plugins.cordova.EnumRegistry;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.Arrays;
+
+/**
+ * {@link ClassFilter} with the include and exclude rules of the JavaScript class filter compiled
+ * into sorted keys. The native engine invokes the filter for every classified frame, so matching a
+ * class takes at most one binary search per rule shape and allocates nothing.
+ *
+ * A rule matches a class if all of its country, region and type are equal to those of the class.
+ * Properties that are missing from the rule or out of range match any class.
+ */
+public final class CompiledClassFilter implements ClassFilter {
+
+    /** Includes every class and excludes none. */
+    public static final CompiledClassFilter ACCEPT_ALL = new CompiledClassFilter(null, new ClassRules(new long[0], new int[0]));
+
+    // rules that include classes, null if every class is included
+    private final ClassRules mIncludeRules;
+    private final ClassRules mExcludeRules;
+
+    private CompiledClassFilter(ClassRules includeRules, ClassRules excludeRules) {
+        mIncludeRules = includeRules;
+        mExcludeRules = excludeRules;
+    }
+
+    /**
+     * @param jsonClassFilter class filter with optional {@code includeClasses} and
+     *                        {@code excludeClasses} arrays, may be {@code null}
+     */
+    public static CompiledClassFilter compile(JSONObject jsonClassFilter) {
+        if (jsonClassFilter == null) {
+            return ACCEPT_ALL;
+        }
+        JSONArray jsonIncludeClasses = jsonClassFilter.optJSONArray("includeClasses");
+        JSONArray jsonExcludeClasses = jsonClassFilter.optJSONArray("excludeClasses");
+        // an empty include list includes every class
+        ClassRules includeRules = jsonIncludeClasses != null && jsonIncludeClasses.length() > 0 ? ClassRules.compile(jsonIncludeClasses) : null;
+        ClassRules excludeRules = jsonExcludeClasses != null ? ClassRules.compile(jsonExcludeClasses) : ACCEPT_ALL.mExcludeRules;
+        return new CompiledClassFilter(includeRules, excludeRules);
+    }
+
+    @Override
+    public boolean classFilter(@NonNull ClassInfo classInfo) {
+        int country = ordinal(classInfo.getCountry());
+        int region = ordinal(classInfo.getRegion());
+        int type = ordinal(classInfo.getType());
+        return (mIncludeRules == null || mIncludeRules.matches(country, region, type))
+                && !mExcludeRules.matches(country, region, type);
+    }
+
+    private static int ordinal(Enum value) {
+        return value != null ? value.ordinal() : -1;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(@NonNull Parcel parcel, int flags) {
+        parcel.writeByte((byte) (mIncludeRules != null ? 1 : 0));
+        if (mIncludeRules != null) {
+            mIncludeRules.writeToParcel(parcel);
+        }
+        mExcludeRules.writeToParcel(parcel);
+    }
+
+    public static final Creator<CompiledClassFilter> CREATOR = new Creator<CompiledClassFilter>() {
+        @Override
+        public CompiledClassFilter createFromParcel(Parcel parcel) {
+            ClassRules includeRules = parcel.readByte() != 0 ? ClassRules.readFromParcel(parcel) : null;
+            return new CompiledClassFilter(includeRules, ClassRules.readFromParcel(parcel));
+        }
+
+        @Override
+        public CompiledClassFilter[] newArray(int size) {
+            return new CompiledClassFilter[size];
+        }
+    };
+
+    /**
+     * Set of rules. Every rule is encoded as a key of its country, region and type ordinals, each
+     * shifted by one so 0 stands for a missing property. The shape of a rule tells which
+     * properties it has, a class matches if its key reduced to one of the shapes is in the set.
+     */
+    private static final class ClassRules {
+        private static final int COUNTRY = 1;
+        private static final int REGION = 2;
+        private static final int TYPE = 4;
+        private static final int BITS_PER_PROPERTY = 21;
+
+        private final long[] mKeys;
+        private final int[] mShapes;
+
+        ClassRules(long[] keys, int[] shapes) {
+            mKeys = keys;
+            mShapes = shapes;
+        }
+
+        static ClassRules compile(JSONArray jsonRules) {
+            long[] keys = new long[jsonRules.length()];
+            boolean[] usedShapes = new boolean[(COUNTRY | REGION | TYPE) + 1];
+            int numKeys = 0;
+            for (int i = 0; i < jsonRules.length(); ++i) {
+                JSONObject jsonRule = jsonRules.optJSONObject(i);
+                if (jsonRule == null) {
+                    continue;
+                }
+                int country = optOrdinal(jsonRule, "country", EnumRegistry.INSTANCE.values(Country.class).size());
+                int region = optOrdinal(jsonRule, "region", EnumRegistry.INSTANCE.values(Region.class).size());
+                int type = optOrdinal(jsonRule, "type", EnumRegistry.INSTANCE.values(Type.class).size());
+                int shape = (country >= 0 ? COUNTRY : 0) | (region >= 0 ? REGION : 0) | (type >= 0 ? TYPE : 0);
+                keys[numKeys++] = key(shape, country, region, type);
+                usedShapes[shape] = true;
+            }
+            keys = Arrays.copyOf(keys, numKeys);
+            Arrays.sort(keys);
+
+            int numShapes = 0;
+            int[] shapes = new int[usedShapes.length];
+            for (int shape = 0; shape < usedShapes.length; ++shape) {
+                if (usedShapes[shape]) {
+                    shapes[numShapes++] = shape;
+                }
+            }
+            return new ClassRules(keys, Arrays.copyOf(shapes, numShapes));
+        }
+
+        /**
+         * @return ordinal of the enum value under the key, or -1 if it is missing or out of range
+         */
+        private static int optOrdinal(JSONObject jsonRule, String key, int numValues) {
+            int ordinal = jsonRule.optInt(key, -1);
+            return ordinal < numValues ? ordinal : -1;
+        }
+
+        private static long key(int shape, int country, int region, int type) {
+            long key = (shape & COUNTRY) != 0 ? country + 1 : 0;
+            key = (key << BITS_PER_PROPERTY) | ((shape & REGION) != 0 ? region + 1 : 0);
+            key = (key << BITS_PER_PROPERTY) | ((shape & TYPE) != 0 ? type + 1 : 0);
+            return key;
+        }
+
+        boolean matches(int country, int region, int type) {
+            for (int shape : mShapes) {
+                if (Arrays.binarySearch(mKeys, key(shape, country, region, type)) >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void writeToParcel(Parcel parcel) {
+            parcel.writeLongArray(mKeys);
+            parcel.writeIntArray(mShapes);
+        }
+
+        static ClassRules readFromParcel(Parcel parcel) {
+            return new ClassRules(parcel.createLongArray(), parcel.createIntArray());
+        }
+    }
+}
@@ -2,7 +2,10 @@ package com.microblink.blinkid.plugins.cordova.recognizers.serialization;
 
 import com.microblink.blinkid.entities.recognizers.Recognizer;
 import com.microblink.blinkid.plugins.cordova.recognizers.RecognizerSerialization;
+import com.microblink.blinkid.plugins.cordova.ResultFieldMask;
+import com.microblink.blinkid.plugins.cordova.ResultSerializationContext;
 import com.microblink.blinkid.plugins.cordova.SerializationUtils;
+import com.microblink.blinkid.plugins.cordova.EnumRegistry;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -12,7 +15,7 @@ public final class DocumentFaceRecognizerSerialization implements RecognizerSeri
     @Override
     public Recognizer<?> createRecognizer(JSONObject jsonObject) {
         com.microblink.blinkid.entities.recognizers.blinkid.documentface.DocumentFaceRecognizer recognizer = new com.microblink.blinkid.entities.recognizers.blinkid.documentface.DocumentFaceRecognizer();
-        recognizer.setDetectorType(com.microblink.blinkid.entities.recognizers.blinkid.documentface.DocumentFaceDetectorType.values()[jsonObject.optInt("detectorType", 0)]);
+        recognizer.setDetectorType(EnumRegistry.INSTANCE.fromOrdinal(com.microblink.blinkid.entities.recognizers.blinkid.documentface.DocumentFaceDetectorType.class, jsonObject.optInt("detectorType", 0)));
         recognizer.setFaceImageDpi(jsonObject.optInt("faceImageDpi", 250));
         recognizer.setFullDocumentImageDpi(jsonObject.optInt("fullDocumentImageDpi", 250));
         recognizer.setFullDocumentImageExtensionFactors(SerializationUtils.deserializeExtensionFactors(jsonObject.optJSONObject("fullDocumentImageExtensionFactors")));
@@ -23,15 +26,16 @@ public final class DocumentFaceRecognizerSerialization implements RecognizerSeri
     }
 
     @Override
-    public JSONObject serializeResult(Recognizer<?> recognizer) {
+    public JSONObject serializeResult(Recognizer<?> recognizer, ResultSerializationContext serializationContext) {
         com.microblink.blinkid.entities.recognizers.blinkid.documentface.DocumentFaceRecognizer.Result result = ((com.microblink.blinkid.entities.recognizers.blinkid.documentface.DocumentFaceRecognizer)recognizer).getResult();
+        ResultFieldMask fieldMask = serializationContext.getResultFieldMask();
         JSONObject jsonResult = new JSONObject();
         try {
             SerializationUtils.addCommonRecognizerResultData(jsonResult, result);
-            jsonResult.put("documentLocation", SerializationUtils.serializeQuad(result.getDocumentLocation()));
-            jsonResult.put("faceImage", SerializationUtils.encodeImageBase64(result.getFaceImage()));
-            jsonResult.put("faceLocation", SerializationUtils.serializeQuad(result.getFaceLocation()));
-            jsonResult.put("fullDocumentImage", SerializationUtils.encodeImageBase64(result.getFullDocumentImage()));
+            if (fieldMask.includes("documentLocation")) jsonResult.put("documentLocation", SerializationUtils.serializeQuad(result.getDocumentLocation()));
+            if (fieldMask.includes("faceImage")) serializationContext.putImage(jsonResult, "faceImage", result.getFaceImage());
+            if (fieldMask.includes("faceLocation")) jsonResult.put("faceLocation", SerializationUtils.serializeQuad(result.getFaceLocation()));
+            if (fieldMask.includes("fullDocumentImage")) serializationContext.putImage(jsonResult, "fullDocumentImage", result.getFullDocumentImage());
         } catch (JSONException e) {
             // see https://developer.android.com/reference/org/json/JSONException
             throw new RuntimeException(e);
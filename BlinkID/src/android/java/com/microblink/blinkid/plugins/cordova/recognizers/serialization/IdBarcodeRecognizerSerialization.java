@@ -2,6 +2,8 @@ package com.microblink.blinkid.plugins.cordova.recognizers.serialization;
 
 import com.microblink.blinkid.entities.recognizers.Recognizer;
 import com.microblink.blinkid.plugins.cordova.recognizers.RecognizerSerialization;
+import com.microblink.blinkid.plugins.cordova.ResultFieldMask;
+import com.microblink.blinkid.plugins.cordova.ResultSerializationContext;
 import com.microblink.blinkid.plugins.cordova.SerializationUtils;
 
 import org.json.JSONException;
@@ -16,48 +18,49 @@ public final class IdBarcodeRecognizerSerialization implements RecognizerSeriali
     }
 
     @Override
-    public JSONObject serializeResult(Recognizer<?> recognizer) {
+    public JSONObject serializeResult(Recognizer<?> recognizer, ResultSerializationContext serializationContext) {
         com.microblink.blinkid.entities.recognizers.blinkid.idbarcode.IdBarcodeRecognizer.Result result = ((com.microblink.blinkid.entities.recognizers.blinkid.idbarcode.IdBarcodeRecognizer)recognizer).getResult();
+        ResultFieldMask fieldMask = serializationContext.getResultFieldMask();
         JSONObject jsonResult = new JSONObject();
         try {
             SerializationUtils.addCommonRecognizerResultData(jsonResult, result);
-            jsonResult.put("additionalNameInformation", result.getAdditionalNameInformation());
-            jsonResult.put("address", result.getAddress());
-            jsonResult.put("age", result.getAge());
-            jsonResult.put("barcodeType", SerializationUtils.serializeEnum(result.getBarcodeType()));
-            jsonResult.put("city", result.getCity());
-            jsonResult.put("dateOfBirth", SerializationUtils.serializeDate(result.getDateOfBirth()));
-            jsonResult.put("dateOfExpiry", SerializationUtils.serializeDate(result.getDateOfExpiry()));
-            jsonResult.put("dateOfIssue", SerializationUtils.serializeDate(result.getDateOfIssue()));
-            jsonResult.put("documentAdditionalNumber", result.getDocumentAdditionalNumber());
-            jsonResult.put("documentNumber", result.getDocumentNumber());
-            jsonResult.put("documentType", SerializationUtils.serializeEnum(result.getDocumentType()));
-            jsonResult.put("employer", result.getEmployer());
-            jsonResult.put("endorsements", result.getEndorsements());
-            jsonResult.put("expired", result.isExpired());
-            jsonResult.put("extendedElements", BlinkIDSerializationUtils.serializeBarcodeElements(result.getExtendedElements()));
-            jsonResult.put("firstName", result.getFirstName());
-            jsonResult.put("fullName", result.getFullName());
-            jsonResult.put("issuingAuthority", result.getIssuingAuthority());
-            jsonResult.put("jurisdiction", result.getJurisdiction());
-            jsonResult.put("lastName", result.getLastName());
-            jsonResult.put("maritalStatus", result.getMaritalStatus());
-            jsonResult.put("middleName", result.getMiddleName());
-            jsonResult.put("nationality", result.getNationality());
-            jsonResult.put("personalIdNumber", result.getPersonalIdNumber());
-            jsonResult.put("placeOfBirth", result.getPlaceOfBirth());
-            jsonResult.put("postalCode", result.getPostalCode());
-            jsonResult.put("profession", result.getProfession());
-            jsonResult.put("race", result.getRace());
-            jsonResult.put("rawData", SerializationUtils.encodeByteArrayToBase64(result.getRawData()));
-            jsonResult.put("religion", result.getReligion());
-            jsonResult.put("residentialStatus", result.getResidentialStatus());
-            jsonResult.put("restrictions", result.getRestrictions());
-            jsonResult.put("sex", result.getSex());
-            jsonResult.put("street", result.getStreet());
-            jsonResult.put("stringData", result.getStringData());
-            jsonResult.put("uncertain", result.isUncertain());
-            jsonResult.put("vehicleClass", result.getVehicleClass());
+            if (fieldMask.includes("additionalNameInformation")) jsonResult.put("additionalNameInformation", result.getAdditionalNameInformation());
+            if (fieldMask.includes("address")) jsonResult.put("address", result.getAddress());
+            if (fieldMask.includes("age")) jsonResult.put("age", result.getAge());
+            if (fieldMask.includes("barcodeType")) jsonResult.put("barcodeType", SerializationUtils.serializeEnum(result.getBarcodeType()));
+            if (fieldMask.includes("city")) jsonResult.put("city", result.getCity());
+            if (fieldMask.includes("dateOfBirth")) jsonResult.put("dateOfBirth", SerializationUtils.serializeDate(result.getDateOfBirth()));
+            if (fieldMask.includes("dateOfExpiry")) jsonResult.put("dateOfExpiry", SerializationUtils.serializeDate(result.getDateOfExpiry()));
+            if (fieldMask.includes("dateOfIssue")) jsonResult.put("dateOfIssue", SerializationUtils.serializeDate(result.getDateOfIssue()));
+            if (fieldMask.includes("documentAdditionalNumber")) jsonResult.put("documentAdditionalNumber", result.getDocumentAdditionalNumber());
+            if (fieldMask.includes("documentNumber")) jsonResult.put("documentNumber", result.getDocumentNumber());
+            if (fieldMask.includes("documentType")) jsonResult.put("documentType", SerializationUtils.serializeEnum(result.getDocumentType()));
+            if (fieldMask.includes("employer")) jsonResult.put("employer", result.getEmployer());
+            if (fieldMask.includes("endorsements")) jsonResult.put("endorsements", result.getEndorsements());
+            if (fieldMask.includes("expired")) jsonResult.put("expired", result.isExpired());
+            if (fieldMask.includes("extendedElements")) jsonResult.put("extendedElements", BlinkIDSerializationUtils.serializeBarcodeElements(result.getExtendedElements()));
+            if (fieldMask.includes("firstName")) jsonResult.put("firstName", result.getFirstName());
+            if (fieldMask.includes("fullName")) jsonResult.put("fullName", result.getFullName());
+            if (fieldMask.includes("issuingAuthority")) jsonResult.put("issuingAuthority", result.getIssuingAuthority());
+            if (fieldMask.includes("jurisdiction")) jsonResult.put("jurisdiction", result.getJurisdiction());
+            if (fieldMask.includes("lastName")) jsonResult.put("lastName", result.getLastName());
+            if (fieldMask.includes("maritalStatus")) jsonResult.put("maritalStatus", result.getMaritalStatus());
+            if (fieldMask.includes("middleName")) jsonResult.put("middleName", result.getMiddleName());
+            if (fieldMask.includes("nationality")) jsonResult.put("nationality", result.getNationality());
+            if (fieldMask.includes("personalIdNumber")) jsonResult.put("personalIdNumber", result.getPersonalIdNumber());
+            if (fieldMask.includes("placeOfBirth")) jsonResult.put("placeOfBirth", result.getPlaceOfBirth());
+            if (fieldMask.includes("postalCode")) jsonResult.put("postalCode", result.getPostalCode());
+            if (fieldMask.includes("profession")) jsonResult.put("profession", result.getProfession());
+            if (fieldMask.includes("race")) jsonResult.put("race", result.getRace());
+            if (fieldMask.includes("rawData")) jsonResult.put("rawData", SerializationUtils.encodeByteArrayToBase64(result.getRawData()));
+            if (fieldMask.includes("religion")) jsonResult.put("religion", result.getReligion());
+            if (fieldMask.includes("residentialStatus")) jsonResult.put("residentialStatus", result.getResidentialStatus());
+            if (fieldMask.includes("restrictions")) jsonResult.put("restrictions", result.getRestrictions());
+            if (fieldMask.includes("sex")) jsonResult.put("sex", result.getSex());
+            if (fieldMask.includes("street")) jsonResult.put("street", result.getStreet());
+            if (fieldMask.includes("stringData")) jsonResult.put("stringData", result.getStringData());
+            if (fieldMask.includes("uncertain")) jsonResult.put("uncertain", result.isUncertain());
+            if (fieldMask.includes("vehicleClass")) jsonResult.put("vehicleClass", result.getVehicleClass());
         } catch (JSONException e) {
             // see https://developer.android.com/reference/org/json/JSONException
             throw new RuntimeException(e);
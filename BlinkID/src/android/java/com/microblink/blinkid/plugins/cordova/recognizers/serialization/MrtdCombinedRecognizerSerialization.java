@@ -2,7 +2,10 @@ package com.microblink.blinkid.plugins.cordova.recognizers.serialization;
 
 import com.microblink.blinkid.entities.recognizers.Recognizer;
 import com.microblink.blinkid.plugins.cordova.recognizers.RecognizerSerialization;
+import com.microblink.blinkid.plugins.cordova.ResultFieldMask;
+import com.microblink.blinkid.plugins.cordova.ResultSerializationContext;
 import com.microblink.blinkid.plugins.cordova.SerializationUtils;
+import com.microblink.blinkid.plugins.cordova.EnumRegistry;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -15,7 +18,7 @@ public final class MrtdCombinedRecognizerSerialization implements RecognizerSeri
         recognizer.setAllowSpecialCharacters(jsonObject.optBoolean("allowSpecialCharacters", false));
         recognizer.setAllowUnparsedResults(jsonObject.optBoolean("allowUnparsedResults", false));
         recognizer.setAllowUnverifiedResults(jsonObject.optBoolean("allowUnverifiedResults", false));
-        recognizer.setDetectorType(com.microblink.blinkid.entities.recognizers.blinkid.documentface.DocumentFaceDetectorType.values()[jsonObject.optInt("detectorType", 0)]);
+        recognizer.setDetectorType(EnumRegistry.INSTANCE.fromOrdinal(com.microblink.blinkid.entities.recognizers.blinkid.documentface.DocumentFaceDetectorType.class, jsonObject.optInt("detectorType", 0)));
         recognizer.setFaceImageDpi(jsonObject.optInt("faceImageDpi", 250));
         recognizer.setFullDocumentImageDpi(jsonObject.optInt("fullDocumentImageDpi", 250));
         recognizer.setFullDocumentImageExtensionFactors(SerializationUtils.deserializeExtensionFactors(jsonObject.optJSONObject("fullDocumentImageExtensionFactors")));
@@ -26,17 +29,18 @@ public final class MrtdCombinedRecognizerSerialization implements RecognizerSeri
     }
 
     @Override
-    public JSONObject serializeResult(Recognizer<?> recognizer) {
+    public JSONObject serializeResult(Recognizer<?> recognizer, ResultSerializationContext serializationContext) {
         com.microblink.blinkid.entities.recognizers.blinkid.mrtd.MrtdCombinedRecognizer.Result result = ((com.microblink.blinkid.entities.recognizers.blinkid.mrtd.MrtdCombinedRecognizer)recognizer).getResult();
+        ResultFieldMask fieldMask = serializationContext.getResultFieldMask();
         JSONObject jsonResult = new JSONObject();
         try {
             SerializationUtils.addCommonRecognizerResultData(jsonResult, result);
-            jsonResult.put("documentDataMatch", SerializationUtils.serializeEnum(result.getDocumentDataMatch()));
-            jsonResult.put("faceImage", SerializationUtils.encodeImageBase64(result.getFaceImage()));
-            jsonResult.put("fullDocumentBackImage", SerializationUtils.encodeImageBase64(result.getFullDocumentBackImage()));
-            jsonResult.put("fullDocumentFrontImage", SerializationUtils.encodeImageBase64(result.getFullDocumentFrontImage()));
-            jsonResult.put("mrzResult", BlinkIDSerializationUtils.serializeMrzResult(result.getMrzResult()));
-            jsonResult.put("scanningFirstSideDone", result.isScanningFirstSideDone());
+            if (fieldMask.includes("documentDataMatch")) jsonResult.put("documentDataMatch", SerializationUtils.serializeEnum(result.getDocumentDataMatch()));
+            if (fieldMask.includes("faceImage")) serializationContext.putImage(jsonResult, "faceImage", result.getFaceImage());
+            if (fieldMask.includes("fullDocumentBackImage")) serializationContext.putImage(jsonResult, "fullDocumentBackImage", result.getFullDocumentBackImage());
+            if (fieldMask.includes("fullDocumentFrontImage")) serializationContext.putImage(jsonResult, "fullDocumentFrontImage", result.getFullDocumentFrontImage());
+            if (fieldMask.includes("mrzResult")) jsonResult.put("mrzResult", BlinkIDSerializationUtils.serializeMrzResult(result.getMrzResult()));
+            if (fieldMask.includes("scanningFirstSideDone")) jsonResult.put("scanningFirstSideDone", result.isScanningFirstSideDone());
         } catch (JSONException e) {
             // see https://developer.android.com/reference/org/json/JSONException
             throw new RuntimeException(e);
@@ -2,14 +2,17 @@ package com.microblink.blinkid.plugins.cordova.recognizers.serialization;
 
 import com.microblink.blinkid.entities.recognizers.Recognizer;
 import com.microblink.blinkid.entities.recognizers.successframe.SuccessFrameGrabberRecognizer;
+import com.microblink.blinkid.plugins.cordova.recognizers.CallbackSettingsSerialization;
 import com.microblink.blinkid.plugins.cordova.recognizers.RecognizerSerialization;
 import com.microblink.blinkid.plugins.cordova.recognizers.RecognizerSerializers;
+import com.microblink.blinkid.plugins.cordova.ResultFieldMask;
+import com.microblink.blinkid.plugins.cordova.ResultSerializationContext;
 import com.microblink.blinkid.plugins.cordova.SerializationUtils;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
-public final class SuccessFrameGrabberRecognizerSerialization implements RecognizerSerialization {
+public final class SuccessFrameGrabberRecognizerSerialization implements RecognizerSerialization, CallbackSettingsSerialization {
     @Override
     public Recognizer<?> createRecognizer(JSONObject jsonRecognizer) {
         try {
@@ -24,9 +27,34 @@ public final class SuccessFrameGrabberRecognizerSerialization implements Recogni
     }
 
     @Override
-    public JSONObject serializeResult(Recognizer<?> recognizer) {
+    public CallbackSettings deserializeCallbackSettings(JSONObject jsonRecognizer) {
+        try {
+            JSONObject jsonSlaveRecognizer = jsonRecognizer.getJSONObject("slaveRecognizer");
+            RecognizerSerialization slaveSerialization = RecognizerSerializers.INSTANCE.getRecognizerSerialization(jsonSlaveRecognizer);
+            if (!(slaveSerialization instanceof CallbackSettingsSerialization)) {
+                return null;
+            }
+            final CallbackSettings slaveCallbackSettings = ((CallbackSettingsSerialization) slaveSerialization).deserializeCallbackSettings(jsonSlaveRecognizer);
+            if (slaveCallbackSettings == null) {
+                return null;
+            }
+            return new CallbackSettings() {
+                @Override
+                public void applyTo(Recognizer<?> recognizer) {
+                    slaveCallbackSettings.applyTo(((SuccessFrameGrabberRecognizer) recognizer).getSlaveRecognizer());
+                }
+            };
+        } catch (JSONException e) {
+            // see https://developer.android.com/reference/org/json/JSONException
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public JSONObject serializeResult(Recognizer<?> recognizer, ResultSerializationContext serializationContext) {
         SuccessFrameGrabberRecognizer sfgr = (SuccessFrameGrabberRecognizer) recognizer;
-        JSONObject jsonSlaveResult = RecognizerSerializers.INSTANCE.getRecognizerSerialization(sfgr.getSlaveRecognizer()).serializeResult(sfgr.getSlaveRecognizer());
+        // the field mask applies to the fields of the slave recognizer result as well
+        ResultFieldMask fieldMask = serializationContext.getResultFieldMask();
 
         SuccessFrameGrabberRecognizer.Result result = sfgr.getResult();
 
@@ -34,8 +62,11 @@ public final class SuccessFrameGrabberRecognizerSerialization implements Recogni
 
         try {
             SerializationUtils.addCommonRecognizerResultData(jsonResult, result);
-            jsonResult.put("slaveRecognizerResult", jsonSlaveResult);
-            jsonResult.put("successFrame", SerializationUtils.encodeImageBase64(result.getSuccessFrame()));
+            if (fieldMask.includes("slaveRecognizerResult")) {
+                JSONObject jsonSlaveResult = RecognizerSerializers.INSTANCE.getRecognizerSerialization(sfgr.getSlaveRecognizer()).serializeResult(sfgr.getSlaveRecognizer(), serializationContext);
+                jsonResult.put("slaveRecognizerResult", jsonSlaveResult);
+            }
+            if (fieldMask.includes("successFrame")) serializationContext.putImage(jsonResult, "successFrame", result.getSuccessFrame());
         } catch (JSONException e) {
             // see https://developer.android.com/reference/org/json/JSONException
             throw new RuntimeException(e);
@@ -9,7 +9,12 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import com.microblink.blinkid.plugins.cordova.ResultFieldMask;
+import com.microblink.blinkid.plugins.cordova.ResultSerializationContext;
 import com.microblink.blinkid.plugins.cordova.SerializationUtils;
+import com.microblink.blinkid.plugins.cordova.EnumRegistry;
+
+import java.util.List;
 
 public final class UsdlCombinedRecognizerSerialization implements RecognizerSerialization {
 
@@ -26,36 +31,37 @@ public final class UsdlCombinedRecognizerSerialization implements RecognizerSeri
     }
 
     @Override
-    public JSONObject serializeResult(Recognizer<?> recognizer) {
+    public JSONObject serializeResult(Recognizer<?> recognizer, ResultSerializationContext serializationContext) {
         UsdlCombinedRecognizer.Result result = ((UsdlCombinedRecognizer)recognizer).getResult();
+        ResultFieldMask fieldMask = serializationContext.getResultFieldMask();
         JSONObject jsonResult = new JSONObject();
         try {
             SerializationUtils.addCommonRecognizerResultData(jsonResult, result);
-            jsonResult.put("documentDataMatch", SerializationUtils.serializeEnum(result.getDocumentDataMatch()));
-            jsonResult.put("faceImage", SerializationUtils.encodeImageBase64(result.getFaceImage()));
-            jsonResult.put("fullDocumentImage", SerializationUtils.encodeImageBase64(result.getFullDocumentImage()));
-            jsonResult.put("scanningFirstSideDone", result.isScanningFirstSideDone());
+            if (fieldMask.includes("documentDataMatch")) jsonResult.put("documentDataMatch", SerializationUtils.serializeEnum(result.getDocumentDataMatch()));
+            if (fieldMask.includes("faceImage")) serializationContext.putImage(jsonResult, "faceImage", result.getFaceImage());
+            if (fieldMask.includes("fullDocumentImage")) serializationContext.putImage(jsonResult, "fullDocumentImage", result.getFullDocumentImage());
+            if (fieldMask.includes("scanningFirstSideDone")) jsonResult.put("scanningFirstSideDone", result.isScanningFirstSideDone());
 
-            jsonResult.put("optionalElements", SerializationUtils.serializeStringArray(result.getOptionalElements()));
-            jsonResult.put("rawData", SerializationUtils.encodeByteArrayToBase64(result.getRawData()));
-            jsonResult.put("rawStringData", result.getRawStringData());
-            jsonResult.put("uncertain", result.isUncertain());
-            jsonResult.put("fields", serializeFields(result));
-            jsonResult.put("firstName", result.getFirstName());
-            jsonResult.put("lastName", result.getLastName());
-            jsonResult.put("fullName", result.getFullName());
-            jsonResult.put("middleName", result.getMiddleName());
-            jsonResult.put("nameSuffix", result.getNameSuffix());
-            jsonResult.put("address", result.getAddress());
-            jsonResult.put("documentNumber", result.getDocumentNumber());
-            jsonResult.put("sex", result.getSex());
-            jsonResult.put("age", result.getAge());
-            jsonResult.put("restrictions", result.getRestrictions());
-            jsonResult.put("endorsements", result.getEndorsements());
-            jsonResult.put("vehicleClass", result.getVehicleClass());
-            jsonResult.put("dateOfBirth", SerializationUtils.serializeDate(result.getDateOfBirth()));
-            jsonResult.put("dateOfIssue", SerializationUtils.serializeDate(result.getDateOfIssue()));
-            jsonResult.put("dateOfExpiry", SerializationUtils.serializeDate(result.getDateOfExpiry()));
+            if (fieldMask.includes("optionalElements")) jsonResult.put("optionalElements", SerializationUtils.serializeStringArray(result.getOptionalElements()));
+            if (fieldMask.includes("rawData")) jsonResult.put("rawData", SerializationUtils.encodeByteArrayToBase64(result.getRawData()));
+            if (fieldMask.includes("rawStringData")) jsonResult.put("rawStringData", result.getRawStringData());
+            if (fieldMask.includes("uncertain")) jsonResult.put("uncertain", result.isUncertain());
+            if (fieldMask.includes("fields")) jsonResult.put("fields", serializeFields(result));
+            if (fieldMask.includes("firstName")) jsonResult.put("firstName", result.getFirstName());
+            if (fieldMask.includes("lastName")) jsonResult.put("lastName", result.getLastName());
+            if (fieldMask.includes("fullName")) jsonResult.put("fullName", result.getFullName());
+            if (fieldMask.includes("middleName")) jsonResult.put("middleName", result.getMiddleName());
+            if (fieldMask.includes("nameSuffix")) jsonResult.put("nameSuffix", result.getNameSuffix());
+            if (fieldMask.includes("address")) jsonResult.put("address", result.getAddress());
+            if (fieldMask.includes("documentNumber")) jsonResult.put("documentNumber", result.getDocumentNumber());
+            if (fieldMask.includes("sex")) jsonResult.put("sex", result.getSex());
+            if (fieldMask.includes("age")) jsonResult.put("age", result.getAge());
+            if (fieldMask.includes("restrictions")) jsonResult.put("restrictions", result.getRestrictions());
+            if (fieldMask.includes("endorsements")) jsonResult.put("endorsements", result.getEndorsements());
+            if (fieldMask.includes("vehicleClass")) jsonResult.put("vehicleClass", result.getVehicleClass());
+            if (fieldMask.includes("dateOfBirth")) jsonResult.put("dateOfBirth", SerializationUtils.serializeDate(result.getDateOfBirth()));
+            if (fieldMask.includes("dateOfIssue")) jsonResult.put("dateOfIssue", SerializationUtils.serializeDate(result.getDateOfIssue()));
+            if (fieldMask.includes("dateOfExpiry")) jsonResult.put("dateOfExpiry", SerializationUtils.serializeDate(result.getDateOfExpiry()));
         } catch (JSONException e) {
             // see https://developer.android.com/reference/org/json/JSONException
             throw new RuntimeException(e);
@@ -65,8 +71,9 @@ public final class UsdlCombinedRecognizerSerialization implements RecognizerSeri
 
     private JSONArray serializeFields(UsdlCombinedRecognizer.Result result) {
         JSONArray fieldsArr = new JSONArray();
-        for (int i = 0; i < UsdlKeys.values().length; ++i) {
-            fieldsArr.put(result.getField(UsdlKeys.values()[i]));
+        List<UsdlKeys> keys = EnumRegistry.INSTANCE.values(UsdlKeys.class);
+        for (int i = 0; i < keys.size(); ++i) {
+            fieldsArr.put(result.getField(keys.get(i)));
         }
         return fieldsArr;
     }
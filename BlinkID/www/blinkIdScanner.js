@@ -34,8 +34,11 @@ function BlinkID() {
  *      licensee: String,
  *      showTrialLicenseKeyWarning: Boolean
  *  }
+ * progressCallback: optional callback that will be invoked with a {ScanProgressEvent} while the scan is in progress.
+ *      The camera scanning reports only ScanProgressEventType.ScanStarted.
+ *      NOTE: currently supported on Android only.
  */
-BlinkID.prototype.scanWithCamera = function (successCallback, errorCallback, overlaySettings, recognizerCollection, licenses) {
+BlinkID.prototype.scanWithCamera = function (successCallback, errorCallback, overlaySettings, recognizerCollection, licenses, progressCallback) {
     if (errorCallback == null) {
         errorCallback = function () {
         };
@@ -53,6 +56,12 @@ BlinkID.prototype.scanWithCamera = function (successCallback, errorCallback, ove
         return;
     }
 
+    if (progressCallback != null && typeof progressCallback != "function") {
+        console.log("BlinkIDScanner.scanWithCamera failure: progress callback parameter not a function");
+        throw new Error("BlinkIDScanner.scanWithCamera failure: progress callback parameter not a function");
+        return;
+    }
+
     // first invalidate old results
     for (var i = 0; i < recognizerCollection.recognizerArray[i].length; ++i ) {
         recognizerCollection.recognizerArray[i].result = null;
@@ -60,12 +69,22 @@ BlinkID.prototype.scanWithCamera = function (successCallback, errorCallback, ove
 
     exec(
         function internalCallback(scanningResult) {
+            if (scanningResult instanceof ArrayBuffer) {
+                scanningResult = decodeBinaryResult(scanningResult);
+            }
+            if (scanningResult.progressEvent != null) {
+                dispatchProgressEvent(scanningResult.progressEvent, recognizerCollection, progressCallback);
+                return;
+            }
             var cancelled = scanningResult.cancelled;
 
             if (cancelled) {
                 successCallback(true);
             } else {
                 var results = scanningResult.resultList;
+                if (recognizerCollection.stringResultFormat == StringResultFormat.Sparse) {
+                    expandSparseStringResults(results, recognizerCollection.recognizerArray);
+                }
                 if (results.length != recognizerCollection.recognizerArray.length) {
                     console.log("INTERNAL ERROR: native plugin returned wrong number of results!");
                     throw new Error("INTERNAL ERROR: native plugin returned wrong number of results!");
@@ -79,15 +98,36 @@ BlinkID.prototype.scanWithCamera = function (successCallback, errorCallback, ove
                 }
             }
         },
-        errorCallback, 'BlinkIDScanner', 'scanWithCamera', [overlaySettings, recognizerCollection, licenses]);
+        errorCallback, 'BlinkIDScanner', 'scanWithCamera', [overlaySettings, recognizerCollection, licenses, progressCallback != null]);
 };
 
 /**
- * successCallback: callback that will be invoked on successful scan
+ * successCallback: callback that will be invoked on successful scan. On Android, its second parameter describes
+ *      how the images were decoded, keyed by 'frontImage' and 'backImage', in format
+ *  {
+ *      sourceWidth: Number, sourceHeight: Number,
+ *      width: Number, height: Number,
+ *      sampleSize: Number,
+ *      reusedBitmap: Boolean,
+ *      exifRotation: Number, clockwise rotation in degrees from the image EXIF data, 0 if there is none
+ *  }
+ *      Its third parameter lists the recognition attempts made for each image, keyed by 'frontImage' and 'backImage',
+ *      as defined by the RecognitionRetryStrategy of the recognizerCollection, in format
+ *  [
+ *      {
+ *          orientation: ImageOrientation,
+ *          scale: Number,
+ *          durationMillis: Number,
+ *          successful: Boolean
+ *      }
+ *  ]
  * errorCallback: callback that will be invoked on error
  * recognizerCollection: {RecognizerCollection} containing recognizers to use for scanning
  * frontImage: the Base64 format string that represents the front image of the document that will be used for processing with DirectAPI
+ *      - On Android, a 'file://' or 'content://' URI of the image can be passed instead. The image is then read by
+ *        the native plugin directly, which avoids encoding and transferring the whole image as a string
  * backImage: the Base64 format string that represents the back image of the document that will be used for processing with DirectAPI
+ *      - On Android, a 'file://' or 'content://' URI of the image can be passed instead
  *      - This parameter is optional for the BlinkIdSingleSideRecognizer. Pass 'null' or an empty string "" for this parameter in this case
  * licenses: object containing:
  *               - base64 license keys for iOS and Android
@@ -100,9 +140,16 @@ BlinkID.prototype.scanWithCamera = function (successCallback, errorCallback, ove
  *      licensee: String,
  *      showTrialLicenseKeyWarning: Boolean
  *  }
+ * progressCallback: optional callback that will be invoked with a {ScanProgressEvent} while the scan is in progress,
+ *      e.g. with the partial results once a multiside recognizer recognized the front side.
+ *      NOTE: currently supported on Android only.
+ *
+ * On Android, a scan may be started while another one is still in progress. Scans are queued and processed in
+ * order, each one reporting to its own callbacks. At most 16 scans can wait for the one in progress. Scans that are in progress at the same time should use separate
+ * RecognizerCollection objects, because the results are stored in the recognizer objects.
  */
 
-BlinkID.prototype.scanWithDirectApi = function (successCallback, errorCallback, recognizerCollection, frontImage, backImage, licenses) {
+BlinkID.prototype.scanWithDirectApi = function (successCallback, errorCallback, recognizerCollection, frontImage, backImage, licenses, progressCallback) {
     if (errorCallback == null) {
         errorCallback = function () {
         };
@@ -120,6 +167,12 @@ BlinkID.prototype.scanWithDirectApi = function (successCallback, errorCallback,
         return;
     }
 
+    if (progressCallback != null && typeof progressCallback != "function") {
+        console.log("BlinkIDScanner.scanWithDirectApi failure: progress callback parameter not a function");
+        throw new Error("BlinkIDScanner.scanWithDirectApi failure: progress callback parameter not a function");
+        return;
+    }
+
     // first invalidate old results
     for (var i = 0; i < recognizerCollection.recognizerArray[i].length; ++i ) {
         recognizerCollection.recognizerArray[i].result = null;
@@ -127,12 +180,22 @@ BlinkID.prototype.scanWithDirectApi = function (successCallback, errorCallback,
 
     exec(
         function internalCallback(scanningResult) {
+            if (scanningResult instanceof ArrayBuffer) {
+                scanningResult = decodeBinaryResult(scanningResult);
+            }
+            if (scanningResult.progressEvent != null) {
+                dispatchProgressEvent(scanningResult.progressEvent, recognizerCollection, progressCallback);
+                return;
+            }
             var cancelled = scanningResult.cancelled;
 
             if (cancelled) {
                 successCallback(true);
             } else {
                 var results = scanningResult.resultList;
+                if (recognizerCollection.stringResultFormat == StringResultFormat.Sparse) {
+                    expandSparseStringResults(results, recognizerCollection.recognizerArray);
+                }
                 if (results.length != recognizerCollection.recognizerArray.length) {
                     console.log("INTERNAL ERROR: native plugin returned wrong number of results!");
                     throw new Error("INTERNAL ERROR: native plugin returned wrong number of results!");
@@ -142,13 +205,552 @@ BlinkID.prototype.scanWithDirectApi = function (successCallback, errorCallback,
                         // native plugin must ensure types match
                         recognizerCollection.recognizerArray[i].result = recognizerCollection.recognizerArray[i].createResultFromNative(results[i]);
                     }
-                    successCallback(false);
+                    successCallback(false, scanningResult.imageDecoding, scanningResult.recognitionAttempts);
                 }
             }
         },
-        errorCallback, 'BlinkIDScanner', 'scanWithDirectApi', [recognizerCollection, frontImage, backImage, licenses]);
+        errorCallback, 'BlinkIDScanner', 'scanWithDirectApi', [recognizerCollection, frontImage, backImage, licenses, progressCallback != null]);
+};
+
+/**
+ * successCallback: callback that will be invoked with the Base64 encoded image
+ * errorCallback: callback that will be invoked if the image is not available anymore
+ * imageHandle: handle of the image from the recognizer result, available when ImageDeliveryMode.Handle is used
+ * imageEncodingProfile: optional {ImageEncodingProfile} used to encode the image. If omitted, the image is
+ *      encoded as JPEG with quality 90 in its original resolution
+ *
+ * NOTE: currently supported on Android only.
+ */
+BlinkID.prototype.getResultImage = function (successCallback, errorCallback, imageHandle, imageEncodingProfile) {
+    if (errorCallback == null) {
+        errorCallback = function () {
+        };
+    }
+
+    if (typeof errorCallback != "function") {
+        console.log("BlinkIDScanner.getResultImage failure: failure parameter not a function");
+        throw new Error("BlinkIDScanner.getResultImage failure: failure parameter not a function");
+        return;
+    }
+
+    if (typeof successCallback != "function") {
+        console.log("BlinkIDScanner.getResultImage failure: success callback parameter must be a function");
+        throw new Error("BlinkIDScanner.getResultImage failure: success callback parameter must be a function");
+        return;
+    }
+
+    exec(successCallback, errorCallback, 'BlinkIDScanner', 'getResultImage', [imageHandle, imageEncodingProfile || null]);
+};
+
+/**
+ * Releases the native memory of images delivered with ImageDeliveryMode.Handle. Released handles can not be
+ * used with getResultImage anymore.
+ *
+ * imageHandles: array of handles to release. If omitted or empty, all images are released
+ * successCallback: optional callback that will be invoked once the images are released
+ *
+ * NOTE: currently supported on Android only.
+ */
+BlinkID.prototype.releaseResultImages = function (imageHandles, successCallback) {
+    exec(successCallback || function () {}, function () {}, 'BlinkIDScanner', 'releaseResultImages', [imageHandles || []]);
+};
+
+/**
+ * successCallback: callback that will be invoked with the metrics of the native scan queue, in format
+ *  {
+ *      activeRequest: Boolean, whether a scan is in progress
+ *      pendingRequests: Number, scans waiting for the one in progress
+ *      maxPendingRequests: Number, largest number of waiting scans so far
+ *      startedRequests: Number, scans started so far
+ *      averageWaitMillis: Number, average time the started scans waited in the queue
+ *      maxWaitMillis: Number, longest time a started scan waited in the queue
+ *      liveBitmapBytes: Number, bytes held by bitmaps the plugin currently uses to decode input images and encode
+ *          result images
+ *      pooledBitmapBytes: Number, bytes held by released bitmaps that are kept for reuse
+ *  }
+ *
+ * NOTE: currently supported on Android only.
+ */
+BlinkID.prototype.getScanQueueMetrics = function (successCallback) {
+    if (typeof successCallback != "function") {
+        console.log("BlinkIDScanner.getScanQueueMetrics failure: success callback parameter must be a function");
+        throw new Error("BlinkIDScanner.getScanQueueMetrics failure: success callback parameter must be a function");
+        return;
+    }
+
+    exec(successCallback, function () {}, 'BlinkIDScanner', 'getScanQueueMetrics', []);
+};
+
+/**
+ * Prepares the native scanning at app start, so the first scan does not pay for the license check, native library
+ * loading and recognizer initialization. The DirectAPI recognizers stay initialized, so the next scanWithDirectApi or
+ * scanBatchWithDirectApi call with the same recognizer settings starts right away. Camera scans reuse the loaded
+ * library and the prepared recognizer settings.
+ *
+ * successCallback: callback that will be invoked once everything is prepared, with the duration of every phase, in format
+ *  {
+ *      phases: {
+ *          licenseMillis: Number,
+ *          recognizerCollectionMillis: Number,
+ *          recognizerRunnerMillis: Number
+ *      },
+ *      totalMillis: Number
+ *  }
+ * errorCallback: callback that will be invoked on error, e.g. if the license is not valid
+ * licenses: object containing license keys, in the same format as for scanWithDirectApi
+ * recognizerCollection: {RecognizerCollection} with the recognizers that the app scans with
+ *
+ * NOTE: currently supported on Android only.
+ */
+BlinkID.prototype.prewarm = function (successCallback, errorCallback, licenses, recognizerCollection) {
+    if (successCallback == null) {
+        successCallback = function () {
+        };
+    }
+
+    if (errorCallback == null) {
+        errorCallback = function () {
+        };
+    }
+
+    if (typeof errorCallback != "function") {
+        console.log("BlinkIDScanner.prewarm failure: failure parameter not a function");
+        throw new Error("BlinkIDScanner.prewarm failure: failure parameter not a function");
+        return;
+    }
+
+    if (typeof successCallback != "function") {
+        console.log("BlinkIDScanner.prewarm failure: success callback parameter not a function");
+        throw new Error("BlinkIDScanner.prewarm failure: success callback parameter not a function");
+        return;
+    }
+
+    exec(successCallback, errorCallback, 'BlinkIDScanner', 'prewarm', [licenses, recognizerCollection]);
+};
+
+/**
+ * itemCallback: callback that will be invoked for every processed image pair with parameters:
+ *      - index: index of the image pair in the images array
+ *      - results: array of recognizer results, one for each recognizer in the recognizerCollection,
+ *                 or null if the information could not be extracted
+ *      - errorMessage: reason why the information could not be extracted, or null on success
+ *      - imageDecoding: how the images were decoded, in the same format as for scanWithDirectApi,
+ *                 or null if the information could not be extracted
+ *      - recognitionAttempts: recognition attempts made for the images, in the same format as for scanWithDirectApi,
+ *                 or null if the information could not be extracted
+ * completionCallback: callback that will be invoked once all image pairs are processed
+ * errorCallback: callback that will be invoked if the batch could not be processed, e.g. on license error.
+ *      No other callbacks are invoked afterwards
+ * recognizerCollection: {RecognizerCollection} containing recognizers to use for scanning.
+ *      The recognizers are initialized once and used for all image pairs
+ * images: array of objects containing image pairs in the same format as the frontImage and backImage
+ *      parameters of scanWithDirectApi, in format
+ *  [
+ *      {
+ *          frontImage: 'base64FrontImage',
+ *          backImage: 'base64BackImage'
+ *      }
+ *  ]
+ *      Images given as 'file://' or 'content://' URIs are read by the native plugin directly
+ * licenses: object containing license keys, in the same format as for scanWithDirectApi
+ *
+ * NOTE: currently supported on Android only.
+ */
+BlinkID.prototype.scanBatchWithDirectApi = function (itemCallback, completionCallback, errorCallback, recognizerCollection, images, licenses) {
+    if (errorCallback == null) {
+        errorCallback = function () {
+        };
+    }
+
+    if (completionCallback == null) {
+        completionCallback = function () {
+        };
+    }
+
+    if (typeof errorCallback != "function") {
+        console.log("BlinkIDScanner.scanBatchWithDirectApi failure: failure parameter not a function");
+        throw new Error("BlinkIDScanner.scanBatchWithDirectApi failure: failure parameter not a function");
+        return;
+    }
+
+    if (typeof completionCallback != "function") {
+        console.log("BlinkIDScanner.scanBatchWithDirectApi failure: completion callback parameter not a function");
+        throw new Error("BlinkIDScanner.scanBatchWithDirectApi failure: completion callback parameter not a function");
+        return;
+    }
+
+    if (typeof itemCallback != "function") {
+        console.log("BlinkIDScanner.scanBatchWithDirectApi failure: item callback parameter must be a function");
+        throw new Error("BlinkIDScanner.scanBatchWithDirectApi failure: item callback parameter must be a function");
+        return;
+    }
+
+    exec(
+        function internalCallback(batchItem) {
+            if (batchItem instanceof ArrayBuffer) {
+                batchItem = decodeBinaryResult(batchItem);
+            }
+            if (batchItem.done) {
+                completionCallback();
+            } else if (batchItem.error != null) {
+                itemCallback(batchItem.index, null, batchItem.error, null, null);
+            } else {
+                var results = batchItem.resultList;
+                if (results.length != recognizerCollection.recognizerArray.length) {
+                    console.log("INTERNAL ERROR: native plugin returned wrong number of results!");
+                    errorCallback(new Error("INTERNAL ERROR: native plugin returned wrong number of results!"));
+                    return;
+                }
+                if (recognizerCollection.stringResultFormat == StringResultFormat.Sparse) {
+                    expandSparseStringResults(results, recognizerCollection.recognizerArray);
+                }
+                var recognizerResults = new Array(results.length);
+                for (var i = 0; i < results.length; ++i) {
+                    // native plugin must ensure types match
+                    recognizerResults[i] = recognizerCollection.recognizerArray[i].createResultFromNative(results[i]);
+                    recognizerCollection.recognizerArray[i].result = recognizerResults[i];
+                }
+                itemCallback(batchItem.index, recognizerResults, null, batchItem.imageDecoding, batchItem.recognitionAttempts);
+            }
+        },
+        errorCallback, 'BlinkIDScanner', 'scanBatchWithDirectApi', [recognizerCollection, images, licenses]);
+};
+
+/**
+ * Recognizes a sequence of recorded frames, e.g. from a video or a burst capture, the same way the camera scanning
+ * recognizes live frames. Recognizers that combine frame results (combineFrameResults) accumulate them across frames.
+ * The scanning stops at the first successful result.
+ *
+ * successCallback: callback that will be invoked on successful scan. Its second parameter describes how the frames
+ *      were processed, in format
+ *  {
+ *      totalFrames: Number,
+ *      processedFrames: Number,
+ *      droppedFrames: Number, frames skipped because the recognition fell behind the frame interval
+ *      undecodableFrames: Number,
+ *      durationMillis: Number
+ *  }
+ * errorCallback: callback that will be invoked on error, or if no frame could be recognized
+ * recognizerCollection: {RecognizerCollection} containing recognizers to use for scanning
+ * frames: array of frames in the same format as the frontImage parameter of scanWithDirectApi, or a 'file://' URI of a
+ *      directory. The JPEG, PNG, WebP and BMP files of the directory are used as frames, ordered by file name
+ * frameIntervalMillis: time between two frames of the recording. Frames are treated as if they were captured live at
+ *      this interval, so the frames that become overdue while a frame is recognized are dropped. If 0, every frame
+ *      is recognized
+ * licenses: object containing license keys, in the same format as for scanWithDirectApi
+ *
+ * NOTE: currently supported on Android only.
+ */
+BlinkID.prototype.scanFrameSequenceWithDirectApi = function (successCallback, errorCallback, recognizerCollection, frames, frameIntervalMillis, licenses) {
+    if (errorCallback == null) {
+        errorCallback = function () {
+        };
+    }
+
+    if (typeof errorCallback != "function") {
+        console.log("BlinkIDScanner.scanFrameSequenceWithDirectApi failure: failure parameter not a function");
+        throw new Error("BlinkIDScanner.scanFrameSequenceWithDirectApi failure: failure parameter not a function");
+        return;
+    }
+
+    if (typeof successCallback != "function") {
+        console.log("BlinkIDScanner.scanFrameSequenceWithDirectApi failure: success callback parameter must be a function");
+        throw new Error("BlinkIDScanner.scanFrameSequenceWithDirectApi failure: success callback parameter must be a function");
+        return;
+    }
+
+    // first invalidate old results
+    for (var i = 0; i < recognizerCollection.recognizerArray.length; ++i ) {
+        recognizerCollection.recognizerArray[i].result = null;
+    }
+
+    exec(
+        function internalCallback(scanningResult) {
+            if (scanningResult instanceof ArrayBuffer) {
+                scanningResult = decodeBinaryResult(scanningResult);
+            }
+            var results = scanningResult.resultList;
+            if (recognizerCollection.stringResultFormat == StringResultFormat.Sparse) {
+                expandSparseStringResults(results, recognizerCollection.recognizerArray);
+            }
+            if (results.length != recognizerCollection.recognizerArray.length) {
+                console.log("INTERNAL ERROR: native plugin returned wrong number of results!");
+                errorCallback(new Error("INTERNAL ERROR: native plugin returned wrong number of results!"));
+                return;
+            }
+            for (var i = 0; i < results.length; ++i) {
+                // native plugin must ensure types match
+                recognizerCollection.recognizerArray[i].result = recognizerCollection.recognizerArray[i].createResultFromNative(results[i]);
+            }
+            successCallback(false, scanningResult.frameSequence);
+        },
+        errorCallback, 'BlinkIDScanner', 'scanFrameSequenceWithDirectApi', [recognizerCollection, frames, frameIntervalMillis || 0, licenses]);
+};
+
+/** Version of the binary result format, must match BinaryResultEncoder.FORMAT_VERSION on Android */
+var BINARY_RESULT_FORMAT_VERSION = 1;
+
+var utf8Decoder = null;
+
+/**
+ * Decodes the scanning result that the native plugin delivers as an ArrayBuffer when ResultFormat.Binary is used.
+ * The format is described in BinaryResultEncoder.java.
+ */
+function decodeBinaryResult(buffer) {
+    var bytes = new Uint8Array(buffer);
+    var view = new DataView(buffer);
+    var position = 0;
+
+    if (bytes.length < 4 || bytes[0] != 0x42 || bytes[1] != 0x4B || bytes[2] != 0x52) {
+        throw new Error("INTERNAL ERROR: native plugin returned result in unknown format!");
+    }
+    if (bytes[3] != BINARY_RESULT_FORMAT_VERSION) {
+        throw new Error("INTERNAL ERROR: native plugin returned result in unsupported format version " + bytes[3] + "!");
+    }
+    position = 4;
+
+    if (utf8Decoder == null) {
+        utf8Decoder = new TextDecoder("utf-8");
+    }
+
+    function readVarint() {
+        // multiplication instead of bit shifts, so values above 32 bits are decoded correctly
+        var value = 0;
+        var multiplier = 1;
+        var b;
+        do {
+            b = bytes[position++];
+            value += (b & 0x7F) * multiplier;
+            multiplier *= 128;
+        } while (b & 0x80);
+        return value;
+    }
+
+    function readString() {
+        var length = readVarint();
+        var string = utf8Decoder.decode(bytes.subarray(position, position + length));
+        position += length;
+        return string;
+    }
+
+    var numKeys = readVarint();
+    var keys = new Array(numKeys);
+    for (var i = 0; i < numKeys; ++i) {
+        keys[i] = readString();
+    }
+
+    function readValue() {
+        var tag = bytes[position++];
+        switch (tag) {
+            case 0:
+                return null;
+            case 1:
+                return false;
+            case 2:
+                return true;
+            case 3:
+                var zigzag = readVarint();
+                return zigzag % 2 == 0 ? zigzag / 2 : -(zigzag + 1) / 2;
+            case 4:
+                var double = view.getFloat64(position, false);
+                position += 8;
+                return double;
+            case 5:
+                return readString();
+            case 6:
+                var arrayLength = readVarint();
+                var array = new Array(arrayLength);
+                for (var i = 0; i < arrayLength; ++i) {
+                    array[i] = readValue();
+                }
+                return array;
+            case 7:
+                var numEntries = readVarint();
+                var object = {};
+                for (var i = 0; i < numEntries; ++i) {
+                    var key = keys[readVarint()];
+                    object[key] = readValue();
+                }
+                return object;
+            default:
+                throw new Error("INTERNAL ERROR: native plugin returned result with unknown value tag " + tag + "!");
+        }
+    }
+
+    return readValue();
+}
+
+var STRING_RESULT_ALPHABETS = ["latin", "arabic", "cyrillic", "greek"];
+
+/**
+ * Restores the full layout of a string result serialized with StringResultFormat.Sparse.
+ * Must be kept in sync with BlinkIDSerializationUtils.serializeStringResult on Android.
+ */
+function expandStringResult(stringResult) {
+    if (stringResult == null || !("empty" in stringResult)) {
+        // null string results are serialized as empty objects in both formats
+        return;
+    }
+    var location = stringResult.location || {};
+    var side = stringResult.side || {};
+    var description = "";
+    for (var i = 0; i < STRING_RESULT_ALPHABETS.length; ++i) {
+        var alphabet = STRING_RESULT_ALPHABETS[i];
+        if (!(alphabet in stringResult)) {
+            stringResult[alphabet] = "";
+        } else if (stringResult[alphabet] === null) {
+            delete stringResult[alphabet];
+        } else if (description == "") {
+            description = stringResult[alphabet];
+        }
+        if (!(alphabet in location)) {
+            location[alphabet] = { x: 0, y: 0, height: 0, width: 0 };
+        } else if (location[alphabet] === null) {
+            location[alphabet] = {};
+        }
+        if (!(alphabet in side)) {
+            side[alphabet] = 0;
+        }
+    }
+    if (!("description" in stringResult)) {
+        stringResult.description = description;
+    } else if (stringResult.description === null) {
+        delete stringResult.description;
+    }
+    stringResult.location = location;
+    stringResult.side = side;
+}
+
+function expandDateResult(dateResult) {
+    if (dateResult == null || !("originalDateStringResult" in dateResult)) {
+        return;
+    }
+    expandStringResult(dateResult.originalDateStringResult);
+    if (!("isFilledByDomainKnowledge" in dateResult)) {
+        dateResult.isFilledByDomainKnowledge = false;
+    }
+}
+
+/**
+ * String and date fields of the native results that are serialized with StringResultFormat.Sparse, and nested
+ * objects and arrays of objects that contain such fields.
+ * Must be kept in sync with BlinkIDSerializationUtils on Android.
+ */
+var SPARSE_VEHICLE_CLASS_INFO_LAYOUT = {
+    stringFields: ["vehicleClass", "licenceType"],
+    dateFields: ["effectiveDate", "expiryDate"]
+};
+
+var SPARSE_DRIVER_LICENSE_DETAILED_INFO_LAYOUT = {
+    stringFields: ["restrictions", "endorsements", "vehicleClass", "conditions"],
+    arrayFields: { vehicleClassesInfo: SPARSE_VEHICLE_CLASS_INFO_LAYOUT }
+};
+
+var SPARSE_DEPENDENT_INFO_LAYOUT = {
+    stringFields: ["documentNumber", "sex", "fullName"],
+    dateFields: ["dateOfBirth"]
+};
+
+var SPARSE_VIZ_RESULT_LAYOUT = {
+    stringFields: ["firstName", "lastName", "fullName", "additionalNameInformation", "localizedName", "address",
+        "additionalAddressInformation", "additionalOptionalAddressInformation", "placeOfBirth", "nationality", "race",
+        "religion", "profession", "maritalStatus", "residentialStatus", "employer", "sex", "documentNumber",
+        "personalIdNumber", "documentAdditionalNumber", "additionalPersonalIdNumber", "issuingAuthority"],
+    dateFields: ["dateOfBirth", "dateOfIssue", "dateOfExpiry"],
+    objectFields: { driverLicenseDetailedInfo: SPARSE_DRIVER_LICENSE_DETAILED_INFO_LAYOUT }
 };
 
+var SPARSE_BLINK_ID_RESULT_LAYOUT = {
+    stringFields: ["additionalAddressInformation", "additionalNameInformation", "additionalOptionalAddressInformation",
+        "address", "bloodType", "documentAdditionalNumber", "documentNumber", "documentOptionalAdditionalNumber",
+        "documentSubtype", "eligibilityCategory", "employer", "fathersName", "firstName", "fullName", "issuingAuthority",
+        "lastName", "localizedName", "manufacturingYear", "maritalStatus", "mothersName", "nationality",
+        "personalIdNumber", "placeOfBirth", "profession", "race", "religion", "remarks", "residencePermitType",
+        "residentialStatus", "sex", "specificDocumentValidity", "sponsor", "vehicleOwner", "vehicleType", "visaType"],
+    dateFields: ["dateOfBirth", "dateOfExpiry", "dateOfIssue"],
+    objectFields: {
+        driverLicenseDetailedInfo: SPARSE_DRIVER_LICENSE_DETAILED_INFO_LAYOUT,
+        vizResult: SPARSE_VIZ_RESULT_LAYOUT,
+        frontVizResult: SPARSE_VIZ_RESULT_LAYOUT,
+        backVizResult: SPARSE_VIZ_RESULT_LAYOUT
+    },
+    arrayFields: { dependentsInfo: SPARSE_DEPENDENT_INFO_LAYOUT }
+};
+
+var SPARSE_RESULT_LAYOUTS = {
+    BlinkIdSingleSideRecognizer: SPARSE_BLINK_ID_RESULT_LAYOUT,
+    BlinkIdMultiSideRecognizer: SPARSE_BLINK_ID_RESULT_LAYOUT
+};
+
+function expandSparseFields(object, layout) {
+    if (object == null) {
+        return;
+    }
+    var i;
+    var stringFields = layout.stringFields || [];
+    for (i = 0; i < stringFields.length; ++i) {
+        expandStringResult(object[stringFields[i]]);
+    }
+    var dateFields = layout.dateFields || [];
+    for (i = 0; i < dateFields.length; ++i) {
+        expandDateResult(object[dateFields[i]]);
+    }
+    for (var objectField in layout.objectFields) {
+        expandSparseFields(object[objectField], layout.objectFields[objectField]);
+    }
+    for (var arrayField in layout.arrayFields) {
+        var array = object[arrayField];
+        for (i = 0; array != null && i < array.length; ++i) {
+            expandSparseFields(array[i], layout.arrayFields[arrayField]);
+        }
+    }
+}
+
+function expandSparseRecognizerResult(nativeResult, recognizer) {
+    if (recognizer.recognizerType == 'SuccessFrameGrabberRecognizer') {
+        if (nativeResult.slaveRecognizerResult != null) {
+            expandSparseRecognizerResult(nativeResult.slaveRecognizerResult, recognizer.slaveRecognizer);
+        }
+        return;
+    }
+    var layout = SPARSE_RESULT_LAYOUTS[recognizer.recognizerType];
+    if (layout != null) {
+        expandSparseFields(nativeResult, layout);
+    }
+}
+
+/**
+ * Expands the string and date results of native results serialized with StringResultFormat.Sparse, so recognizer
+ * results have exactly the same layout as with StringResultFormat.Full. Only the fields that the native plugin
+ * serializes in the sparse format are visited.
+ */
+function expandSparseStringResults(nativeResults, recognizerArray) {
+    for (var i = 0; i < nativeResults.length && i < recognizerArray.length; ++i) {
+        expandSparseRecognizerResult(nativeResults[i], recognizerArray[i]);
+    }
+}
+
+/**
+ * Invokes the progress callback of a scan with the event delivered by the native plugin.
+ */
+function dispatchProgressEvent(nativeEvent, recognizerCollection, progressCallback) {
+    if (progressCallback == null) {
+        return;
+    }
+    var results = null;
+    if (nativeEvent.resultList != null) {
+        if (recognizerCollection.stringResultFormat == StringResultFormat.Sparse) {
+            expandSparseStringResults(nativeEvent.resultList, recognizerCollection.recognizerArray);
+        }
+        results = new Array(nativeEvent.resultList.length);
+        for (var i = 0; i < results.length; ++i) {
+            // partial results are not stored in the recognizers, they keep the final results only
+            results[i] = recognizerCollection.recognizerArray[i].createResultFromNative(nativeEvent.resultList[i]);
+        }
+    }
+    progressCallback(new ScanProgressEvent(nativeEvent.type, results));
+}
+
 // COMMON CLASSES
 
 /**
@@ -161,6 +763,15 @@ function Recognizer(recognizerType) {
     this.recognizerType = recognizerType;
     /** Recognizer's result */
     this.result = null;
+    /**
+     * Names of the result fields that should be returned, e.g. ['firstName', 'lastName', 'dateOfBirth'].
+     * Fields that are not listed are neither extracted from the native result nor sent to JavaScript, so
+     * their result properties stay undefined. The resultState is always returned.
+     * For SuccessFrameGrabberRecognizer the mask also applies to the fields of the wrapped recognizer's result.
+     * If null, all fields are returned.
+     * NOTE: currently supported on Android only.
+     */
+    this.resultFieldMask = null;
 }
 
 /**
@@ -191,6 +802,212 @@ function RecognizerResult(resultState) {
     this.resultState = resultState;
 }
 
+/**
+ * Defines how the scanning results are transferred from the native plugin.
+ */
+var ResultFormat = Object.freeze(
+    {
+        /** Results are transferred as JSON */
+        Json : 0,
+        /**
+         * Results are transferred in a compact binary format and decoded by the plugin. Recognizer results are
+         * the same as with ResultFormat.Json, but take less time to transfer and parse. The native plugin still
+         * builds the JSON result first and encodes it afterwards, so building a result takes slightly longer.
+         */
+        Binary : 1
+    }
+);
+
+/**
+ * Defines how the scanning results are transferred from the native plugin.
+ */
+BlinkID.prototype.ResultFormat = ResultFormat;
+
+/**
+ * Defines how string and date results are serialized by the native plugin.
+ */
+var StringResultFormat = Object.freeze(
+    {
+        /** Values, locations and sides of all alphabets are serialized, even if empty */
+        Full : 0,
+        /**
+         * Only non-empty alphabets with their locations and sides are serialized. The plugin restores
+         * the layout of StringResultFormat.Full in JavaScript, the recognizer results are the same in both formats.
+         */
+        Sparse : 1
+    }
+);
+
+/**
+ * Defines how string and date results are serialized by the native plugin.
+ */
+BlinkID.prototype.StringResultFormat = StringResultFormat;
+
+/**
+ * Defines how the images are delivered in the recognizer results.
+ */
+var ImageDeliveryMode = Object.freeze(
+    {
+        /** Images are delivered as Base64 encoded strings */
+        Base64 : 0,
+        /** Images are written into the app cache and delivered as file URIs */
+        File : 1,
+        /**
+         * Images are kept in native memory and delivered as handles. The image is encoded only when it is
+         * requested with BlinkID.getResultImage.
+         */
+        Handle : 2
+    }
+);
+
+/**
+ * Defines how the images are delivered in the recognizer results.
+ */
+BlinkID.prototype.ImageDeliveryMode = ImageDeliveryMode;
+
+/**
+ * Compression formats of the result images.
+ */
+var ImageFormat = Object.freeze(
+    {
+        /** JPEG, lossy */
+        Jpeg : 0,
+        /** WebP, lossy */
+        WebP : 1,
+        /** PNG, lossless. The quality of the encoding profile is ignored. */
+        Png : 2
+    }
+);
+
+/**
+ * Compression formats of the result images.
+ */
+BlinkID.prototype.ImageFormat = ImageFormat;
+
+/**
+ * Defines how a result image is encoded.
+ */
+function ImageEncodingProfile() {
+    /** Compression format of the image */
+    this.format = ImageFormat.Jpeg;
+    /** Compression quality in range [0, 100] */
+    this.quality = 90;
+    /**
+     * Maximum length in pixels of the longer image edge. Larger images are downscaled before compression.
+     * If set to 0, images are not downscaled and their size is defined by the recognizer's
+     * DPI settings (e.g. faceImageDpi, fullDocumentImageDpi or signatureImageDpi).
+     */
+    this.maxDimension = 0;
+}
+
+BlinkID.prototype.ImageEncodingProfile = ImageEncodingProfile;
+
+/**
+ * Defines how the input images of scanWithDirectApi and scanBatchWithDirectApi are decoded.
+ */
+function ImageDecodingProfile() {
+    /**
+     * Minimum length in pixels of the longer edge of the decoded image. Larger images are subsampled by powers
+     * of two while they stay at or above this length. If set to 0, images are decoded in their original resolution.
+     * The default of 1920 matches the camera frames the recognizers get. Images with small MRZ or barcode text may
+     * need a higher value or 0 to keep the recognition accuracy of their full resolution.
+     */
+    this.targetDimension = 1920;
+}
+
+BlinkID.prototype.ImageDecodingProfile = ImageDecodingProfile;
+
+/**
+ * Types of the events reported while a scan is in progress.
+ */
+var ScanProgressEventType = Object.freeze(
+    {
+        /** The camera scanning was started, or DirectAPI started recognizing the front image */
+        ScanStarted : 0,
+        /** A multiside recognizer recognized the front side, the event contains its partial results */
+        FirstSideRecognized : 1,
+        /** DirectAPI started recognizing the back image */
+        BackSideStarted : 2
+    }
+);
+
+/**
+ * Types of the events reported while a scan is in progress.
+ */
+BlinkID.prototype.ScanProgressEventType = ScanProgressEventType;
+
+/**
+ * Event reported while a scan is in progress.
+ */
+function ScanProgressEvent(type, results) {
+    /** Type of the event, see ScanProgressEventType */
+    this.type = type;
+    /**
+     * Partial results, one for each recognizer in the recognizerCollection, or null if the event has no results.
+     * For ScanProgressEventType.FirstSideRecognized, they contain the fields of the front side, including classInfo.
+     * Partial results contain no images, images are delivered with the final result only.
+     */
+    this.results = results;
+}
+
+BlinkID.prototype.ScanProgressEvent = ScanProgressEvent;
+
+/**
+ * Orientations in which DirectAPI recognizes the input images, named after the orientation of the device
+ * that would have taken the image.
+ */
+var ImageOrientation = Object.freeze(
+    {
+        /** The image is upright */
+        LandscapeRight : 0,
+        /** The image must be rotated by 90 degrees clockwise to be upright */
+        Portrait : 1,
+        /** The image is upside down */
+        LandscapeLeft : 2,
+        /** The image must be rotated by 90 degrees counterclockwise to be upright */
+        PortraitUpside : 3
+    }
+);
+
+/**
+ * Orientations in which DirectAPI recognizes the input images.
+ */
+BlinkID.prototype.ImageOrientation = ImageOrientation;
+
+/**
+ * All orientations of an input image, to be set as RecognitionRetryStrategy.orientations when the orientation of
+ * the input images is unknown. A document that can not be recognized then takes four recognitions per scale.
+ */
+var AllImageOrientations = Object.freeze([
+    ImageOrientation.LandscapeRight,
+    ImageOrientation.Portrait,
+    ImageOrientation.LandscapeLeft,
+    ImageOrientation.PortraitUpside
+]);
+
+/**
+ * All orientations of an input image.
+ */
+BlinkID.prototype.AllImageOrientations = AllImageOrientations;
+
+/**
+ * Defines how DirectAPI retries the recognition of an input image. Every scale is tried with every orientation,
+ * in the given order, until the recognition succeeds.
+ */
+function RecognitionRetryStrategy() {
+    /**
+     * Orientations to try. By default, only the upright orientation is tried, set to AllImageOrientations to try
+     * every orientation.
+     */
+    this.orientations = [ImageOrientation.LandscapeRight];
+    /** Downscale factors of the decoded image to try, in range [0.1, 1] */
+    this.scales = [1];
+    /** Whether the orientation from the image EXIF data is tried first */
+    this.useExifOrientation = true;
+}
+
+BlinkID.prototype.RecognitionRetryStrategy = RecognitionRetryStrategy;
+
 /**
  * Represents a collection of recognizer objects.
  * @param recognizerArray Array of recognizer objects that will be used for recognition. Must not be empty!
@@ -207,6 +1024,67 @@ function RecognizerCollection(recognizerArray) {
     this.allowMultipleResults = false;
     /** Number of miliseconds after first non-empty result becomes available to end scanning with a timeout */
     this.milisecondsBeforeTimeout = 0;
+    /**
+     * Defines how the scanning results are transferred from the native plugin.
+     * NOTE: currently supported on Android only.
+     */
+    this.resultFormat = ResultFormat.Json;
+    /**
+     * Defines how string and date results are serialized by the native plugin. StringResultFormat.Sparse
+     * reduces the size of BlinkID results, most of their fields are populated in a single alphabet or empty.
+     * NOTE: currently supported on Android only.
+     */
+    this.stringResultFormat = StringResultFormat.Full;
+    /**
+     * Defines how the images are delivered in the recognizer results.
+     * By default, images are delivered inline as Base64 encoded strings.
+     * When set to ImageDeliveryMode.File, images are written into the plugin's directory in the app cache and
+     * result image properties contain 'file://' URIs of those images.
+     * NOTE: currently supported on Android only.
+     */
+    this.imageDeliveryMode = ImageDeliveryMode.Base64;
+    /**
+     * Maximum size in bytes of the image cache directory used with ImageDeliveryMode.File.
+     * When the limit is exceeded, the oldest images are deleted.
+     */
+    this.imageFileCacheSizeLimit = 64 * 1024 * 1024;
+    /**
+     * Approximate maximum size in bytes of the native memory holding images delivered with ImageDeliveryMode.Handle.
+     * When the limit is exceeded, the least recently used images are released and their handles become invalid.
+     * The cache is shared by all scans, so the limit of the most recently started scan applies to the images of earlier scans as well.
+     * When the system reports low memory, all cached images are released.
+     */
+    this.imageHandleCacheSizeLimit = 48 * 1024 * 1024;
+    /**
+     * Encoding profile used for all result images that don't have a profile in imageEncodingProfiles.
+     * By default, images are encoded as JPEG with quality 90 and are not downscaled.
+     * NOTE: currently supported on Android only.
+     */
+    this.defaultImageEncodingProfile = new ImageEncodingProfile();
+    /**
+     * Encoding profiles for specific result images, keyed by the name of the image property in the result, e.g.
+     *
+     * var faceProfile = new cordova.plugins.BlinkID.ImageEncodingProfile();
+     * faceProfile.quality = 70;
+     * faceProfile.maxDimension = 300;
+     * recognizerCollection.imageEncodingProfiles = { faceImage: faceProfile };
+     *
+     * NOTE: currently supported on Android only.
+     */
+    this.imageEncodingProfiles = {};
+    /**
+     * Defines how the input images of scanWithDirectApi and scanBatchWithDirectApi are decoded.
+     * By default, images are subsampled while their longer edge stays at or above 1920 pixels.
+     * NOTE: currently supported on Android only.
+     */
+    this.imageDecodingProfile = new ImageDecodingProfile();
+    /**
+     * Defines how DirectAPI retries the recognition of an input image in other orientations and scales.
+     * By default, the image is recognized once in the decoded resolution, preceded by the orientation from the image
+     * EXIF data if the image is rotated.
+     * NOTE: currently supported on Android only.
+     */
+    this.recognitionRetryStrategy = new RecognitionRetryStrategy();
 
     if (!(this.recognizerArray.constructor === Array)) {
         throw new Error("recognizerArray must be array of Recognizer objects!");